@@ -2,6 +2,7 @@ package com.xeenaa.villagermanager;
 
 import com.xeenaa.villagermanager.block.ModBlocks;
 import com.xeenaa.villagermanager.config.ModConfig;
+import com.xeenaa.villagermanager.event.GuardAIEventHandler;
 import com.xeenaa.villagermanager.event.ThreatEventHandler;
 import com.xeenaa.villagermanager.network.SelectProfessionPacket;
 import com.xeenaa.villagermanager.network.GuardDataSyncPacket;
@@ -90,6 +91,9 @@ public class XeenaaVillagerManager implements ModInitializer {
         LOGGER.info("Initializing threat detection system for guard villagers");
         ThreatEventHandler.initialize();
 
+        // Initialize shared guard AI services (hostile index, etc.)
+        GuardAIEventHandler.initialize();
+
         // Final initialization complete message
         LOGGER.info("Xeenaa Villager Manager initialization complete - Guard profession ready");
 
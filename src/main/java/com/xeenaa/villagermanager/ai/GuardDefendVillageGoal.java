@@ -1,5 +1,7 @@
 package com.xeenaa.villagermanager.ai;
 
+import com.xeenaa.villagermanager.ai.performance.GuardAIScheduler;
+import com.xeenaa.villagermanager.ai.performance.GuardRegistry;
 import com.xeenaa.villagermanager.data.GuardData;
 import com.xeenaa.villagermanager.data.GuardDataManager;
 import com.xeenaa.villagermanager.threat.ThreatDetectionManager;
@@ -36,7 +38,7 @@ public class GuardDefendVillageGoal extends Goal {
         }
 
         if (cooldown > 0) {
-            cooldown--;
+            cooldown = Math.max(0, cooldown - GuardAIScheduler.getElapsedTicks(guard));
             return false;
         }
 
@@ -141,10 +143,13 @@ public class GuardDefendVillageGoal extends Goal {
         // The system already alerts guards when high-priority threats are detected
         if (currentThreat != null && !currentThreat.isHighPriority()) {
             // Only manually alert for lower priority threats
-            List<VillagerEntity> nearbyGuards = guard.getWorld().getEntitiesByClass(
-                VillagerEntity.class,
+            if (!(guard.getWorld() instanceof ServerWorld serverWorld)) {
+                return;
+            }
+
+            List<VillagerEntity> nearbyGuards = GuardRegistry.get(serverWorld).getGuardsInBox(
                 guard.getBoundingBox().expand(24.0),
-                villager -> villager != guard && isGuard(villager) && villager.getTarget() == null
+                villager -> villager != guard && villager.getTarget() == null
             );
 
             for (VillagerEntity otherGuard : nearbyGuards) {
@@ -176,8 +181,4 @@ public class GuardDefendVillageGoal extends Goal {
     private boolean isGuard() {
         return guard.getVillagerData().getProfession().id().equals("guard");
     }
-
-    private boolean isGuard(VillagerEntity villager) {
-        return villager.getVillagerData().getProfession().id().equals("guard");
-    }
 }
\ No newline at end of file
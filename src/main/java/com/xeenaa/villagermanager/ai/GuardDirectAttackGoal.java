@@ -2,16 +2,24 @@ package com.xeenaa.villagermanager.ai;
 
 import com.xeenaa.villagermanager.XeenaaVillagerManager;
 import com.xeenaa.villagermanager.ai.performance.GuardAIScheduler;
+import com.xeenaa.villagermanager.ai.performance.GuardWorkBudget;
+import com.xeenaa.villagermanager.ai.performance.HostileEntityIndex;
+import com.xeenaa.villagermanager.ai.performance.LineOfSightCache;
+import com.xeenaa.villagermanager.ai.performance.PathFailureCache;
+import com.xeenaa.villagermanager.ai.performance.PathfindingCache;
+import com.xeenaa.villagermanager.ai.performance.PerformanceMonitor;
+import com.xeenaa.villagermanager.ai.performance.StuckDetector;
 import com.xeenaa.villagermanager.config.GuardBehaviorConfig;
 import com.xeenaa.villagermanager.data.GuardData;
 import com.xeenaa.villagermanager.data.GuardDataManager;
 import com.xeenaa.villagermanager.util.CombatEffects;
 import net.minecraft.entity.LivingEntity;
 import net.minecraft.entity.ai.goal.Goal;
+import net.minecraft.entity.ai.pathing.Path;
 import net.minecraft.entity.mob.HostileEntity;
 import net.minecraft.entity.passive.VillagerEntity;
 import net.minecraft.server.world.ServerWorld;
-import net.minecraft.util.math.Box;
+import net.minecraft.util.math.BlockPos;
 
 import java.util.EnumSet;
 import java.util.List;
@@ -34,6 +42,13 @@ public class GuardDirectAttackGoal extends Goal {
     private int configRefreshCounter = 0;
     private static final int CONFIG_REFRESH_INTERVAL = 100; // Refresh every 5 seconds
 
+    // Combat repathing: keep the current path until the target drifts from its end or the guard stalls
+    private static final double MELEE_REPATH_DISTANCE = 2.0;
+    private static final double RANGED_REPATH_DISTANCE = 4.0;
+    private static final int STALL_TICKS = 20; // 1 second without progress
+    private static final String PATH_HIT_METRIC = "combat_path_cache_hit_pct";
+    private final StuckDetector stallDetector = new StuckDetector(STALL_TICKS);
+
     public GuardDirectAttackGoal(VillagerEntity guard) {
         this.guard = guard;
         this.setControls(EnumSet.of(Control.MOVE, Control.LOOK));
@@ -77,7 +92,8 @@ public class GuardDirectAttackGoal extends Goal {
      */
     private double getDetectionRange() {
         // Periodically refresh configuration to pick up changes
-        if (++configRefreshCounter >= CONFIG_REFRESH_INTERVAL) {
+        configRefreshCounter += GuardAIScheduler.getElapsedTicks(guard);
+        if (configRefreshCounter >= CONFIG_REFRESH_INTERVAL) {
             configRefreshCounter = 0;
             refreshConfiguration();
         }
@@ -94,31 +110,43 @@ public class GuardDirectAttackGoal extends Goal {
      */
     private boolean shouldEngageHostile(HostileEntity hostile) {
         // Attack all visible hostile mobs within detection range
-        return guard.canSee(hostile);
+        return LineOfSightCache.get((ServerWorld) guard.getWorld()).canSee(guard, hostile);
     }
 
     @Override
     public boolean canStart() {
         // Search for targets every 10 ticks (0.5 seconds)
         if (targetSearchCooldown > 0) {
-            targetSearchCooldown--;
+            targetSearchCooldown = Math.max(0, targetSearchCooldown - GuardAIScheduler.getElapsedTicks(guard));
+            return this.target != null && this.target.isAlive();
+        }
+
+        if (!(guard.getWorld() instanceof ServerWorld serverWorld)) {
+            this.target = null;
+            return false;
+        }
+
+        // Wait for room in this tick's guard AI budget; keep the current target meanwhile
+        GuardWorkBudget budget = GuardWorkBudget.get(serverWorld);
+        if (!budget.tryAcquire(guard, GuardWorkBudget.WorkType.TARGET_SEARCH, guard.getTarget() != null,
+                GuardAIScheduler.get(serverWorld).getCurrentUpdateInterval(guard))) {
             return this.target != null && this.target.isAlive();
         }
 
         targetSearchCooldown = 10;
+        long searchStart = System.nanoTime();
 
         // Get detection range from configuration
         double detectionRange = getDetectionRange();
 
-        // Find nearest hostile entity within configured range
-        Box searchBox = guard.getBoundingBox().expand(detectionRange);
-
-        // Find hostiles based on configuration
-        List<HostileEntity> hostiles = guard.getWorld().getEntitiesByClass(
-            HostileEntity.class,
-            searchBox,
-            entity -> entity.isAlive() && shouldEngageHostile(entity)
+        // Find hostiles within configured range from the shared per-tick index
+        List<HostileEntity> hostiles = HostileEntityIndex.get(serverWorld).getHostilesInRange(
+            guard.getPos(),
+            detectionRange,
+            Math.min(detectionRange, HostileEntityIndex.DEFAULT_VERTICAL_RANGE),
+            this::shouldEngageHostile
         );
+        budget.recordCost(GuardWorkBudget.WorkType.TARGET_SEARCH, System.nanoTime() - searchStart);
 
         if (!hostiles.isEmpty()) {
             // Target the closest hostile
@@ -164,6 +192,7 @@ public class GuardDirectAttackGoal extends Goal {
         this.target = null;
         guard.setTarget(null);
         guard.getNavigation().stop();
+        stallDetector.reset();
 
         // Notify scheduler that guard left combat for reduced update frequency
         if (guard.getWorld() instanceof ServerWorld serverWorld) {
@@ -180,7 +209,7 @@ public class GuardDirectAttackGoal extends Goal {
 
         // Update cooldowns
         if (attackCooldown > 0) {
-            attackCooldown--;
+            attackCooldown = Math.max(0, attackCooldown - GuardAIScheduler.getElapsedTicks(guard));
         }
 
         // Look at target
@@ -204,7 +233,7 @@ public class GuardDirectAttackGoal extends Goal {
                 guard.getNavigation().startMovingTo(backupTarget.x, backupTarget.y, backupTarget.z, 0.8);
             } else if (actualDistance > 12.0) {
                 // Too far, move closer
-                guard.getNavigation().startMovingTo(target, 0.8);
+                chaseTarget(0.8, RANGED_REPATH_DISTANCE);
             } else {
                 // Good distance, stop and shoot
                 guard.getNavigation().stop();
@@ -226,7 +255,7 @@ public class GuardDirectAttackGoal extends Goal {
         } else {
             // Melee combat - close distance and attack
             if (actualDistance > 2.0) {
-                guard.getNavigation().startMovingTo(target, 1.0);
+                chaseTarget(1.0, MELEE_REPATH_DISTANCE);
             } else {
                 guard.getNavigation().stop();
             }
@@ -239,6 +268,53 @@ public class GuardDirectAttackGoal extends Goal {
         }
     }
 
+    /**
+     * Moves toward the target, keeping the current path while it still ends near the
+     * target and the guard is making progress along it.
+     *
+     * @param speed Movement speed
+     * @param repathDistance How far the target may move from the path end before repathing
+     */
+    private void chaseTarget(double speed, double repathDistance) {
+        if (!(guard.getWorld() instanceof ServerWorld serverWorld)) {
+            guard.getNavigation().startMovingTo(target, speed);
+            return;
+        }
+
+        int currentTick = serverWorld.getServer().getTicks();
+        BlockPos guardPos = guard.getBlockPos();
+        BlockPos targetPos = target.getBlockPos();
+
+        // Progress tracking: a guard that has not moved for a while is stuck on its path
+        boolean stalled = stallDetector.update(guardPos, currentTick);
+
+        PathfindingCache pathCache = PathfindingCache.get(serverWorld);
+        BlockPos pathEnd = pathCache.getCachedPath(guard.getUuid(), guardPos, targetPos, currentTick);
+        boolean hit = pathEnd != null
+            && !stalled
+            && guard.getNavigation().isFollowingPath()
+            && pathEnd.isWithinDistance(targetPos, repathDistance);
+        PerformanceMonitor.get(serverWorld).recordMetric(PATH_HIT_METRIC, hit ? 100 : 0);
+
+        if (hit) {
+            guard.getNavigation().setSpeed(speed);
+            return;
+        }
+
+        // Target recently unreachable from here (e.g. across a river): skip the failing search
+        PathFailureCache failures = PathFailureCache.get(serverWorld);
+        if (failures.isBlocked(guardPos, targetPos)) {
+            return;
+        }
+
+        Path path = guard.getNavigation().findPathTo(target, 1);
+        failures.recordResult(guardPos, targetPos, path);
+        if (path != null && guard.getNavigation().startMovingAlong(path, speed)) {
+            pathCache.cachePath(guard.getUuid(), guardPos, targetPos, path.getTarget(), currentTick);
+        }
+        stallDetector.reset();
+    }
+
     private void performMeleeAttack() {
         if (this.target == null) {
             return;
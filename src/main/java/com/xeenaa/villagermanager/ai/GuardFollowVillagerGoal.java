@@ -1,14 +1,22 @@
 package com.xeenaa.villagermanager.ai;
 
+import com.xeenaa.villagermanager.ai.performance.FormationManager;
+import com.xeenaa.villagermanager.ai.performance.GuardAIScheduler;
+import com.xeenaa.villagermanager.ai.performance.HostileEntityIndex;
+import com.xeenaa.villagermanager.ai.performance.LineOfSightCache;
+import com.xeenaa.villagermanager.ai.performance.PathFailureCache;
+import com.xeenaa.villagermanager.ai.performance.StuckDetector;
 import com.xeenaa.villagermanager.config.GuardMode;
 import com.xeenaa.villagermanager.data.GuardData;
 import com.xeenaa.villagermanager.data.GuardDataManager;
 import net.minecraft.entity.LivingEntity;
 import net.minecraft.entity.ai.TargetPredicate;
 import net.minecraft.entity.ai.goal.Goal;
+import net.minecraft.entity.ai.pathing.Path;
 import net.minecraft.entity.passive.VillagerEntity;
 import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
 
 import java.util.EnumSet;
 import java.util.List;
@@ -17,6 +25,8 @@ import java.util.UUID;
 /**
  * AI goal that makes guards follow nearby villagers or players for protection.
  * Guards maintain a protective distance based on their specialization and role.
+ * Guards following the same entity move in a formation sharing one leader path
+ * ({@link FormationManager}).
  */
 public class GuardFollowVillagerGoal extends Goal {
     private final VillagerEntity guard;
@@ -32,6 +42,9 @@ public class GuardFollowVillagerGoal extends Goal {
     private static final double MIN_FOLLOW_DISTANCE = 3.0;
     private static final double MAX_FOLLOW_DISTANCE = 12.0;
     private static final double FOLLOW_SPEED = 0.6;
+    private static final int STUCK_TICKS = 60; // 3 seconds without progress
+
+    private final StuckDetector stuckDetector = new StuckDetector(STUCK_TICKS);
 
     public GuardFollowVillagerGoal(VillagerEntity guard) {
         this.guard = guard;
@@ -111,8 +124,19 @@ public class GuardFollowVillagerGoal extends Goal {
         // Look at the follow target occasionally
         guard.getLookControl().lookAt(followTarget, 10.0F, (float) guard.getMaxLookPitchChange());
 
+        int elapsedTicks = GuardAIScheduler.getElapsedTicks(guard);
+
+        // Stuck on the way: back off from this destination instead of retrying forever
+        if (guard.getNavigation().isFollowingPath() && guard.getWorld() instanceof ServerWorld serverWorld
+                && stuckDetector.update(guard.getBlockPos(), serverWorld.getServer().getTicks())) {
+            PathFailureCache.get(serverWorld).blacklistDestination(guard.getUuid(), followTarget.getBlockPos());
+            guard.getNavigation().stop();
+            stuckDetector.reset();
+        }
+
         // Update path periodically
-        if (--timeToRecalculatePath <= 0) {
+        timeToRecalculatePath -= elapsedTicks;
+        if (timeToRecalculatePath <= 0) {
             timeToRecalculatePath = 10; // Update every 0.5 seconds
 
             double distance = guard.squaredDistanceTo(followTarget);
@@ -121,10 +145,10 @@ public class GuardFollowVillagerGoal extends Goal {
             if (distance > MIN_FOLLOW_DISTANCE * MIN_FOLLOW_DISTANCE) {
                 if (distance < MAX_FOLLOW_DISTANCE * MAX_FOLLOW_DISTANCE) {
                     // Follow at normal speed
-                    guard.getNavigation().startMovingTo(followTarget, FOLLOW_SPEED);
+                    moveInFormation(FOLLOW_SPEED);
                 } else {
                     // Run to catch up if far away
-                    guard.getNavigation().startMovingTo(followTarget, FOLLOW_SPEED * 1.5);
+                    moveInFormation(FOLLOW_SPEED * 1.5);
                 }
             } else {
                 // Stop if too close
@@ -134,18 +158,55 @@ public class GuardFollowVillagerGoal extends Goal {
 
         // Handle path failure
         if (updatePathCooldown > 0) {
-            updatePathCooldown--;
+            updatePathCooldown = Math.max(0, updatePathCooldown - elapsedTicks);
         } else if (!guard.getNavigation().isFollowingPath()) {
             updatePathCooldown = 20; // Retry after 1 second
             // Try to recalculate path
-            guard.getNavigation().startMovingTo(followTarget, FOLLOW_SPEED);
+            moveInFormation(FOLLOW_SPEED);
         }
     }
 
+    /**
+     * Moves along this guard's slot of the shared formation path, or paths to the
+     * follow target directly when the slot has diverged from it.
+     */
+    private void moveInFormation(double speed) {
+        // Starting from a standstill: progress tracked before the guard stopped is stale.
+        // Re-paths while already moving keep tracking, so a guard stuck on the way is caught.
+        if (!guard.getNavigation().isFollowingPath()) {
+            stuckDetector.reset();
+        }
+
+        if (guard.getWorld() instanceof ServerWorld serverWorld) {
+            Path slotPath = FormationManager.get(serverWorld).getSlotPath(guard, followTarget);
+            if (slotPath != null && guard.getNavigation().startMovingAlong(slotPath, speed)) {
+                return;
+            }
+
+            // Skip searches that failed recently (target behind a wall or across water)
+            PathFailureCache failures = PathFailureCache.get(serverWorld);
+            BlockPos from = guard.getBlockPos();
+            BlockPos to = followTarget.getBlockPos();
+            if (failures.isBlocked(guard, to)) {
+                return;
+            }
+
+            Path path = guard.getNavigation().findPathTo(followTarget, 1);
+            failures.recordResult(from, to, path);
+            guard.getNavigation().startMovingAlong(path, speed);
+            return;
+        }
+        guard.getNavigation().startMovingTo(followTarget, speed);
+    }
+
     @Override
     public void stop() {
+        if (guard.getWorld() instanceof ServerWorld serverWorld) {
+            FormationManager.get(serverWorld).leave(guard.getUuid());
+        }
         followTarget = null;
         guard.getNavigation().stop();
+        stuckDetector.reset();
         timeToRecalculatePath = 0;
         updatePathCooldown = 0;
     }
@@ -218,11 +279,16 @@ public class GuardFollowVillagerGoal extends Goal {
      * Checks if a villager has nearby threats
      */
     private boolean hasNearbyThreats(VillagerEntity villager) {
-        return !villager.getWorld().getEntitiesByClass(
-            net.minecraft.entity.mob.HostileEntity.class,
-            villager.getBoundingBox().expand(8.0),
-            hostile -> hostile.isAlive() && hostile.canSee(villager)
-        ).isEmpty();
+        if (!(villager.getWorld() instanceof ServerWorld serverWorld)) {
+            return false;
+        }
+
+        return HostileEntityIndex.get(serverWorld).anyHostileInRange(
+            villager.getPos(),
+            8.0,
+            8.0,
+            hostile -> LineOfSightCache.get(serverWorld).canSee(hostile, villager)
+        );
     }
 
     /**
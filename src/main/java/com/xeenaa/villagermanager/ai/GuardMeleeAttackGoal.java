@@ -1,5 +1,7 @@
 package com.xeenaa.villagermanager.ai;
 
+import com.xeenaa.villagermanager.ai.performance.GuardAIScheduler;
+import com.xeenaa.villagermanager.ai.performance.HostileEntityIndex;
 import com.xeenaa.villagermanager.data.GuardData;
 import com.xeenaa.villagermanager.data.GuardDataManager;
 import com.xeenaa.villagermanager.data.rank.GuardRankData;
@@ -10,10 +12,12 @@ import net.minecraft.entity.attribute.EntityAttributes;
 import net.minecraft.entity.damage.DamageSource;
 import net.minecraft.entity.effect.StatusEffectInstance;
 import net.minecraft.entity.effect.StatusEffects;
+import net.minecraft.entity.mob.HostileEntity;
 import net.minecraft.entity.passive.VillagerEntity;
 import net.minecraft.item.ItemStack;
 import net.minecraft.item.SwordItem;
 import net.minecraft.item.ToolItem;
+import net.minecraft.server.world.ServerWorld;
 import net.minecraft.sound.SoundEvents;
 import net.minecraft.util.Hand;
 import net.minecraft.util.math.Box;
@@ -73,7 +77,7 @@ public class GuardMeleeAttackGoal extends MeleeAttackGoal {
 
         // Update cooldowns
         if (attackCooldown > 0) {
-            attackCooldown--;
+            attackCooldown = Math.max(0, attackCooldown - GuardAIScheduler.getElapsedTicks(guard));
             // Log when ready to attack again (every 20 ticks to avoid spam)
             if (attackCooldown == 0 && guard.age % 20 == 0) {
                 LOGGER.info("[MELEE READY] Guard {} attack cooldown finished, ready to strike",
@@ -274,13 +278,16 @@ public class GuardMeleeAttackGoal extends MeleeAttackGoal {
      * Damages enemies within radius of the target
      */
     private void damageNearbyEnemies(LivingEntity primaryTarget, double radius, float damage) {
+        if (!(guard.getWorld() instanceof ServerWorld serverWorld)) {
+            return;
+        }
+
         Box searchBox = Box.of(primaryTarget.getPos(), radius * 2, radius * 2, radius * 2);
-        List<LivingEntity> nearbyEntities = guard.getWorld().getEntitiesByClass(
-            LivingEntity.class, searchBox,
-            entity -> entity != guard && entity != primaryTarget &&
-                     guard.canTarget(entity) && entity.isAlive());
+        List<HostileEntity> nearbyEntities = HostileEntityIndex.get(serverWorld).getHostilesInBox(
+            searchBox,
+            entity -> entity != primaryTarget && guard.canTarget(entity));
 
-        for (LivingEntity entity : nearbyEntities) {
+        for (HostileEntity entity : nearbyEntities) {
             if (guard.squaredDistanceTo(entity) <= radius * radius) {
                 DamageSource damageSource = guard.getDamageSources().mobAttack(guard);
                 entity.damage(damageSource, damage);
@@ -1,11 +1,21 @@
 package com.xeenaa.villagermanager.ai;
 
 import com.xeenaa.villagermanager.ai.performance.GuardAIScheduler;
+import com.xeenaa.villagermanager.ai.performance.GuardPathfinder;
+import com.xeenaa.villagermanager.ai.performance.GuardPostLocator;
+import com.xeenaa.villagermanager.ai.performance.GuardWorldAccess;
+import com.xeenaa.villagermanager.ai.performance.PathFailureCache;
 import com.xeenaa.villagermanager.ai.performance.PathfindingCache;
+import com.xeenaa.villagermanager.ai.performance.PatrolPathCache;
+import com.xeenaa.villagermanager.ai.performance.StuckDetector;
+import com.xeenaa.villagermanager.ai.performance.SurfaceResolver;
 import com.xeenaa.villagermanager.config.GuardMode;
 import com.xeenaa.villagermanager.data.GuardData;
 import com.xeenaa.villagermanager.data.GuardDataManager;
+import com.xeenaa.villagermanager.data.PatrolWaypointManager;
+import net.minecraft.block.BlockState;
 import net.minecraft.entity.ai.goal.Goal;
+import net.minecraft.entity.ai.pathing.Path;
 import net.minecraft.entity.passive.VillagerEntity;
 import net.minecraft.server.world.ServerWorld;
 import net.minecraft.util.math.BlockPos;
@@ -19,13 +29,16 @@ import java.util.List;
 /**
  * AI goal that makes guards patrol around their assigned area when not in combat.
  * Guards will randomly move around within a defined radius of their patrol center.
+ * Paths come from the world-shared {@link PatrolPathCache}, so guards of the same post
+ * reuse each other's paths. Guards patrolling a guard post pick their targets from the
+ * post's persisted waypoints ({@link PatrolWaypointManager}).
  */
 public class GuardPatrolGoal extends Goal {
     private final VillagerEntity guard;
     private final Random random = new Random();
-    private final PathfindingCache pathCache;
 
     private BlockPos patrolCenter;
+    private boolean patrolCenterIsPost;
     private BlockPos currentTarget;
     private int patrolRadius;
     private int cooldownTicks;
@@ -34,15 +47,18 @@ public class GuardPatrolGoal extends Goal {
 
     private static final int DEFAULT_PATROL_RADIUS = 16;
     private static final int MIN_PATROL_DISTANCE = 4;
+    private static final int SURFACE_SEARCH_RANGE = 8; // Max height difference from the patrol center
     private static final int PATROL_COOLDOWN = 100; // 5 seconds between patrol moves
     private static final int MAX_PATROL_TIME = 1200; // 1 minute max patrol time
     private static final int PATROL_CENTER_SEARCH_COOLDOWN = 6000; // 5 minutes
+    private static final int STUCK_TICKS = 60; // 3 seconds without progress
+
+    private final StuckDetector stuckDetector = new StuckDetector(STUCK_TICKS);
 
     public GuardPatrolGoal(VillagerEntity guard) {
         this.guard = guard;
         this.setControls(EnumSet.of(Control.MOVE));
         this.patrolRadius = DEFAULT_PATROL_RADIUS;
-        this.pathCache = new PathfindingCache();
     }
 
     @Override
@@ -54,7 +70,7 @@ public class GuardPatrolGoal extends Goal {
 
         // Check cooldown
         if (cooldownTicks > 0) {
-            cooldownTicks--;
+            cooldownTicks = Math.max(0, cooldownTicks - GuardAIScheduler.getElapsedTicks(guard));
             return false;
         }
 
@@ -80,6 +96,7 @@ public class GuardPatrolGoal extends Goal {
                 BlockPos workstation = findGuardPostWorkstation();
                 if (workstation != null) {
                     patrolCenter = workstation;
+                    patrolCenterIsPost = true;
                 } else {
                     // Fallback to current position if no workstation found
                     patrolCenter = guard.getBlockPos();
@@ -96,6 +113,7 @@ public class GuardPatrolGoal extends Goal {
         if (currentTarget == null || hasReachedTarget() || patrolTicks > MAX_PATROL_TIME) {
             if (guard.getWorld() instanceof ServerWorld serverWorld) {
                 int currentTick = serverWorld.getServer().getTicks();
+                PathfindingCache pathCache = PathfindingCache.get(serverWorld);
                 BlockPos cached = pathCache.getCachedPatrolPosition(guard.getUuid(), currentTick);
                 if (cached != null) {
                     currentTarget = cached;
@@ -139,25 +157,60 @@ public class GuardPatrolGoal extends Goal {
     @Override
     public void start() {
         if (currentTarget != null) {
-            guard.getNavigation().startMovingTo(currentTarget.getX(), currentTarget.getY(), currentTarget.getZ(), 0.5);
+            moveToTarget();
             patrolTicks = 0;
         }
     }
 
     @Override
     public void tick() {
-        patrolTicks++;
+        patrolTicks += GuardAIScheduler.getElapsedTicks(guard);
+
+        // Stuck on the way: blacklist the target and end this walk (the cooldown applies)
+        if (currentTarget != null && guard.getNavigation().isFollowingPath()
+                && guard.getWorld() instanceof ServerWorld serverWorld
+                && stuckDetector.update(guard.getBlockPos(), serverWorld.getServer().getTicks())) {
+            PathFailureCache.get(serverWorld).blacklistDestination(guard.getUuid(), currentTarget);
+            PathfindingCache.get(serverWorld).invalidate(guard.getUuid());
+            currentTarget = null;
+            return;
+        }
 
         // Check if navigation failed
         if (!guard.getNavigation().isFollowingPath() && currentTarget != null) {
-            // Try to find a new target if navigation failed
+            // Try one new target; if it cannot be reached either, end this walk instead of
+            // re-picking every tick
             currentTarget = findBasicPatrolTarget();
-            if (currentTarget != null) {
-                guard.getNavigation().startMovingTo(currentTarget.getX(), currentTarget.getY(), currentTarget.getZ(), 0.5);
+            if (currentTarget != null && !moveToTarget()) {
+                currentTarget = null;
             }
         }
     }
 
+    /**
+     * Starts moving to the current target, reusing a shared patrol path when available
+     *
+     * @return true if the guard is moving
+     */
+    private boolean moveToTarget() {
+        stuckDetector.reset();
+        if (guard.getWorld() instanceof ServerWorld serverWorld) {
+            BlockPos post = patrolCenter != null ? patrolCenter : guard.getBlockPos();
+            PatrolPathCache pathCache = PatrolPathCache.get(serverWorld);
+            Path path = pathCache.getCachedPath(guard, post, currentTarget);
+            if (path != null && guard.getNavigation().startMovingAlong(path, 0.5)) {
+                return true;
+            }
+
+            // Cache miss: path and share the result with the post
+            BlockPos origin = guard.getBlockPos();
+            BlockPos destination = currentTarget;
+            return GuardPathfinder.moveTo(serverWorld, guard, destination, 0.5,
+                computed -> pathCache.cachePath(origin, post, destination, computed));
+        }
+        return guard.getNavigation().startMovingTo(currentTarget.getX(), currentTarget.getY(), currentTarget.getZ(), 0.5);
+    }
+
     @Override
     public void stop() {
         guard.getNavigation().stop();
@@ -166,6 +219,19 @@ public class GuardPatrolGoal extends Goal {
         patrolTicks = 0;
     }
 
+    /**
+     * Drops the current patrol target so a fresh one is picked (used when a dormant guard
+     * wakes up and its old walk is stale).
+     */
+    public void resamplePatrolTarget() {
+        currentTarget = null;
+        patrolTicks = 0;
+        cooldownTicks = 0;
+        if (guard.getWorld() instanceof ServerWorld serverWorld) {
+            PathfindingCache.get(serverWorld).invalidate(guard.getUuid());
+        }
+    }
+
     /**
      * Finds a basic patrol target
      */
@@ -174,22 +240,37 @@ public class GuardPatrolGoal extends Goal {
             patrolCenter = guard.getBlockPos();
         }
 
+        PathFailureCache failures = guard.getWorld() instanceof ServerWorld serverWorld
+            ? PathFailureCache.get(serverWorld) : null;
+
+        // Guard posts have a precomputed set of reachable waypoints
+        if (patrolCenterIsPost && guard.getWorld() instanceof ServerWorld serverWorld) {
+            BlockPos waypoint = PatrolWaypointManager.get(serverWorld)
+                .pickWaypoint(serverWorld, patrolCenter, guard.getBlockPos(), MIN_PATROL_DISTANCE, random);
+            if (waypoint != null && !failures.isBlocked(guard, waypoint)) {
+                return waypoint;
+            }
+        }
+
         // Try multiple times to find a good patrol target
         for (int attempts = 0; attempts < 10; attempts++) {
             int offsetX = random.nextInt(patrolRadius * 2) - patrolRadius;
             int offsetZ = random.nextInt(patrolRadius * 2) - patrolRadius;
 
-            BlockPos candidate = patrolCenter.add(offsetX, 0, offsetZ);
+            // Snap to a cell so guards of the same post share destinations (and paths)
+            BlockPos candidate = PatrolPathCache.snapToCell(patrolCenter.add(offsetX, 0, offsetZ));
 
             // Find the surface at this position
-            BlockPos surface = findSurface(candidate);
+            BlockPos surface = SurfaceResolver.findStandable(guard.getWorld(),
+                candidate.getX(), candidate.getY(), candidate.getZ(), SURFACE_SEARCH_RANGE);
             if (surface != null) {
                 double distance = guard.getBlockPos().getSquaredDistance(surface);
 
                 // Make sure it's not too close (avoid micro-movements)
                 if (distance >= MIN_PATROL_DISTANCE * MIN_PATROL_DISTANCE) {
-                    // Check if the position is navigable
-                    if (isValidPatrolPosition(surface)) {
+                    // Check if the position is navigable and not known to be unreachable
+                    if (isValidPatrolPosition(surface)
+                            && (failures == null || !failures.isBlocked(guard, surface))) {
                         return surface;
                     }
                 }
@@ -199,33 +280,6 @@ public class GuardPatrolGoal extends Goal {
         return null;
     }
 
-    /**
-     * Finds the surface level at a given position
-     */
-    private BlockPos findSurface(BlockPos pos) {
-        BlockPos.Mutable mutable = pos.mutableCopy();
-
-        // Start from a bit above and work down
-        mutable.setY(Math.min(pos.getY() + 5, guard.getWorld().getTopY()));
-
-        // Find the first solid block
-        while (mutable.getY() > guard.getWorld().getBottomY()) {
-            if (guard.getWorld().getBlockState(mutable).isSolidBlock(guard.getWorld(), mutable)) {
-                // Check if there's space above for the guard
-                BlockPos above1 = mutable.up();
-                BlockPos above2 = mutable.up(2);
-
-                if (!guard.getWorld().getBlockState(above1).isSolidBlock(guard.getWorld(), above1) &&
-                    !guard.getWorld().getBlockState(above2).isSolidBlock(guard.getWorld(), above2)) {
-                    return above1; // Return the position where the guard can stand
-                }
-            }
-            mutable.move(0, -1, 0);
-        }
-
-        return null;
-    }
-
     /**
      * Checks if a position is valid for patrolling
      */
@@ -237,8 +291,12 @@ public class GuardPatrolGoal extends Goal {
 
         // Basic validation - check if the space is clear for movement
         // This is a simplified check, the navigation system will handle detailed pathfinding
-        return !guard.getWorld().getBlockState(pos).isSolidBlock(guard.getWorld(), pos) &&
-               !guard.getWorld().getBlockState(pos.up()).isSolidBlock(guard.getWorld(), pos.up());
+        // Unloaded chunks count as invalid rather than being loaded for the check
+        BlockState feet = GuardWorldAccess.getBlockState(guard.getWorld(), pos);
+        BlockState head = GuardWorldAccess.getBlockState(guard.getWorld(), pos.up());
+        return feet != null && head != null &&
+               !feet.isSolidBlock(guard.getWorld(), pos) &&
+               !head.isSolidBlock(guard.getWorld(), pos.up());
     }
 
     /**
@@ -259,6 +317,7 @@ public class GuardPatrolGoal extends Goal {
      */
     public void setPatrolCenter(BlockPos center) {
         this.patrolCenter = center;
+        this.patrolCenterIsPost = false;
     }
 
     /**
@@ -272,6 +331,11 @@ public class GuardPatrolGoal extends Goal {
      * Finds the guard post workstation for this guard
      */
     private BlockPos findGuardPostWorkstation() {
+        if (!(guard.getWorld() instanceof ServerWorld serverWorld)) {
+            return null;
+        }
+        GuardPostLocator locator = GuardPostLocator.get(serverWorld);
+
         // Check if guard has a job site (workstation)
         Optional<net.minecraft.util.math.GlobalPos> jobSite = guard.getBrain().getOptionalMemory(net.minecraft.entity.ai.brain.MemoryModuleType.JOB_SITE);
         if (jobSite.isPresent()) {
@@ -280,50 +344,14 @@ public class GuardPatrolGoal extends Goal {
             if (globalPos.dimension().equals(guard.getWorld().getRegistryKey())) {
                 BlockPos pos = globalPos.pos();
                 // Verify it's actually a guard post
-                if (guard.getWorld().getBlockState(pos).getBlock() instanceof com.xeenaa.villagermanager.block.GuardPostBlock) {
+                if (GuardWorldAccess.isGuardPost(guard.getWorld(), pos)) {
+                    locator.claimPost(guard, pos);
                     return pos;
                 }
             }
         }
 
-        // If no job site in memory, search for nearby guard posts
-        return findNearbyGuardPost();
-    }
-
-    /**
-     * Searches for a guard post within a reasonable range.
-     * OPTIMIZED: Uses spiral search pattern and early exit to reduce block checks.
-     */
-    private BlockPos findNearbyGuardPost() {
-        BlockPos guardPos = guard.getBlockPos();
-        int searchRadius = 48; // Search within 48 blocks
-
-        // OPTIMIZED: Use spiral search pattern starting from guard position
-        // This finds nearby guard posts much faster than triple nested loop
-        // Most guard posts will be within 16 blocks, so we find them quickly
-
-        // Check concentric squares, starting small
-        for (int radius = 4; radius <= searchRadius; radius += 4) {
-            // Only check the perimeter of each square, not the interior
-            for (int x = -radius; x <= radius; x += 4) {
-                for (int y = -8; y <= 8; y += 4) {  // Limited Y search
-                    // Check four edges of the square
-                    BlockPos[] edgePositions = {
-                        guardPos.add(x, y, -radius),  // North edge
-                        guardPos.add(x, y, radius),   // South edge
-                        guardPos.add(-radius, y, x),  // West edge
-                        guardPos.add(radius, y, x)    // East edge
-                    };
-
-                    for (BlockPos checkPos : edgePositions) {
-                        if (guard.getWorld().getBlockState(checkPos).getBlock() instanceof com.xeenaa.villagermanager.block.GuardPostBlock) {
-                            return checkPos;
-                        }
-                    }
-                }
-            }
-        }
-
-        return null;
+        // If no job site in memory, take the least-loaded guard post nearby (POI lookup)
+        return locator.assignPost(guard);
     }
-}
\ No newline at end of file
+}
@@ -1,5 +1,8 @@
 package com.xeenaa.villagermanager.ai;
 
+import com.xeenaa.villagermanager.ai.performance.DangerField;
+import com.xeenaa.villagermanager.ai.performance.GuardAIScheduler;
+import com.xeenaa.villagermanager.ai.performance.GuardWorldAccess;
 import com.xeenaa.villagermanager.data.GuardData;
 import com.xeenaa.villagermanager.data.GuardDataManager;
 import com.xeenaa.villagermanager.data.rank.GuardRankData;
@@ -14,14 +17,19 @@ import net.minecraft.entity.projectile.ArrowEntity;
 import net.minecraft.item.BowItem;
 import net.minecraft.item.ItemStack;
 import net.minecraft.item.Items;
+import net.minecraft.server.world.ServerWorld;
 import net.minecraft.sound.SoundEvents;
 import net.minecraft.util.Hand;
+import net.minecraft.util.hit.BlockHitResult;
+import net.minecraft.util.hit.HitResult;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.MathHelper;
 import net.minecraft.util.math.Vec3d;
+import net.minecraft.world.RaycastContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import java.util.EnumSet;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -45,6 +53,7 @@ public class GuardRangedAttackGoal extends Goal {
     // Cooldowns (in ticks)
     private static final int BASE_ATTACK_COOLDOWN = 30; // 1.5 seconds
     private static final int REPOSITION_COOLDOWN = 60; // 3 seconds
+    private static final int MAX_HIGH_GROUND_CHECKS = 4; // Line-of-sight raycasts per search
 
     private final double moveSpeed;
     private final int attackInterval;
@@ -114,8 +123,9 @@ public class GuardRangedAttackGoal extends Goal {
         }
 
         // Update cooldowns
-        if (attackCooldown > 0) attackCooldown--;
-        if (repositionCooldown > 0) repositionCooldown--;
+        int elapsedTicks = GuardAIScheduler.getElapsedTicks(guard);
+        if (attackCooldown > 0) attackCooldown = Math.max(0, attackCooldown - elapsedTicks);
+        if (repositionCooldown > 0) repositionCooldown = Math.max(0, repositionCooldown - elapsedTicks);
 
         double distanceToTarget = guard.squaredDistanceTo(target);
         double actualDistance = Math.sqrt(distanceToTarget);
@@ -220,24 +230,20 @@ public class GuardRangedAttackGoal extends Goal {
      * Finds high ground positions for tactical advantage
      */
     private BlockPos findHighGround(LivingEntity target) {
-        BlockPos guardPos = guard.getBlockPos();
+        if (!(guard.getWorld() instanceof ServerWorld serverWorld)) {
+            return null;
+        }
+
         BlockPos targetPos = target.getBlockPos();
-        int guardY = guardPos.getY();
-
-        // Search for positions 2-4 blocks higher within radius
-        for (int y = guardY + 2; y <= guardY + 4; y++) {
-            for (int x = -5; x <= 5; x++) {
-                for (int z = -5; z <= 5; z++) {
-                    BlockPos checkPos = guardPos.add(x, y - guardY, z);
-
-                    // Check if position is valid and provides line of sight to target
-                    if (isValidHighGroundPosition(checkPos, targetPos)) {
-                        double distance = Math.sqrt(checkPos.getSquaredDistance(targetPos));
-                        if (distance >= PREFERRED_MIN_DISTANCE && distance <= PREFERRED_MAX_DISTANCE) {
-                            return checkPos;
-                        }
-                    }
-                }
+
+        // Indexed vantage points 2-4 blocks higher within radius, nearest first
+        List<BlockPos> candidates = DangerField.get(serverWorld).findVantagePoints(
+            guard, targetPos, 5, 2, 4, PREFERRED_MIN_DISTANCE, PREFERRED_MAX_DISTANCE);
+
+        // Line of sight needs a raycast, so only the nearest few are checked
+        for (int i = 0; i < Math.min(candidates.size(), MAX_HIGH_GROUND_CHECKS); i++) {
+            if (hasLineOfSight(candidates.get(i), targetPos)) {
+                return candidates.get(i);
             }
         }
 
@@ -245,28 +251,19 @@ public class GuardRangedAttackGoal extends Goal {
     }
 
     /**
-     * Checks if a position is valid for high ground positioning
+     * Checks if a high ground position has line of sight to the target
      */
-    private boolean isValidHighGroundPosition(BlockPos pos, BlockPos targetPos) {
-        // Check if position is safe to stand on
-        if (!guard.getWorld().getBlockState(pos).isAir() ||
-            !guard.getWorld().getBlockState(pos.up()).isAir()) {
-            return false;
-        }
-
-        if (guard.getWorld().getBlockState(pos.down()).isAir()) {
-            return false;
-        }
-
-        // Check line of sight to target
+    private boolean hasLineOfSight(BlockPos pos, BlockPos targetPos) {
+        // The vantage index may be older than a chunk unload; never raycast into one
         Vec3d start = Vec3d.ofCenter(pos);
         Vec3d end = Vec3d.ofCenter(targetPos);
-        return guard.getWorld().raycast(new net.minecraft.world.RaycastContext(
+        BlockHitResult hit = GuardWorldAccess.raycast(guard.getWorld(), new RaycastContext(
             start, end,
-            net.minecraft.world.RaycastContext.ShapeType.COLLIDER,
-            net.minecraft.world.RaycastContext.FluidHandling.NONE,
+            RaycastContext.ShapeType.COLLIDER,
+            RaycastContext.FluidHandling.NONE,
             guard
-        )).getType() == net.minecraft.util.hit.HitResult.Type.MISS;
+        ));
+        return hit != null && hit.getType() == HitResult.Type.MISS;
     }
 
     /**
@@ -1,9 +1,18 @@
 package com.xeenaa.villagermanager.ai;
 
+import com.xeenaa.villagermanager.ai.performance.DangerField;
+import com.xeenaa.villagermanager.ai.performance.GuardAIScheduler;
+import com.xeenaa.villagermanager.ai.performance.GuardPathfinder;
+import com.xeenaa.villagermanager.ai.performance.GuardPostLocator;
+import com.xeenaa.villagermanager.ai.performance.GuardWorldAccess;
+import com.xeenaa.villagermanager.ai.performance.PathFailureCache;
+import com.xeenaa.villagermanager.ai.performance.StuckDetector;
+import com.xeenaa.villagermanager.ai.performance.SurfaceResolver;
 import com.xeenaa.villagermanager.data.GuardData;
 import com.xeenaa.villagermanager.data.GuardDataManager;
 import net.minecraft.entity.ai.goal.Goal;
 import net.minecraft.entity.passive.VillagerEntity;
+import net.minecraft.server.world.ServerWorld;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.Vec3d;
 
@@ -23,8 +32,12 @@ public class GuardRetreatGoal extends Goal {
     private static final float LOW_HEALTH_THRESHOLD = 0.2f; // 20% health (was 30%)
     private static final float SAFE_HEALTH_THRESHOLD = 0.5f; // 50% health (was 60%)
     private static final double RETREAT_DISTANCE = 20.0;
+    private static final int SURFACE_SEARCH_RANGE = 6;
     private static final int MAX_RETREAT_TIME = 600; // 30 seconds
     private static final int REGENERATION_INTERVAL = 40; // 2 seconds between heals
+    private static final int STUCK_TICKS = 40; // 2 seconds without progress
+
+    private final StuckDetector stuckDetector = new StuckDetector(STUCK_TICKS);
 
     public GuardRetreatGoal(VillagerEntity guard) {
         this.guard = guard;
@@ -78,32 +91,36 @@ public class GuardRetreatGoal extends Goal {
 
         // Start moving to retreat location
         if (retreatTarget != null) {
-            guard.getNavigation().startMovingTo(
-                retreatTarget.getX(),
-                retreatTarget.getY(),
-                retreatTarget.getZ(),
-                1.0 // Full speed retreat
-            );
+            moveToRetreatTarget(); // Full speed retreat
         }
 
         retreatTicks = 0;
         regenerationTicks = 0;
+        stuckDetector.reset();
     }
 
     @Override
     public void tick() {
-        retreatTicks++;
-        regenerationTicks++;
+        int elapsedTicks = GuardAIScheduler.getElapsedTicks(guard);
+        retreatTicks += elapsedTicks;
+        regenerationTicks += elapsedTicks;
+
+        // Stuck on the way: blacklist this location and pick another
+        if (retreatTarget != null && guard.getNavigation().isFollowingPath()
+                && guard.getWorld() instanceof ServerWorld serverWorld
+                && stuckDetector.update(guard.getBlockPos(), serverWorld.getServer().getTicks())) {
+            PathFailureCache.get(serverWorld).blacklistDestination(guard.getUuid(), retreatTarget);
+            guard.getNavigation().stop();
+            retreatTarget = findRetreatLocation();
+            stuckDetector.reset();
+        }
 
-        // Continue moving to retreat location if not there yet
+        // Continue moving to retreat location if not there yet; if it can't be reached
+        // any more, pick another (falling back to holding position)
         if (retreatTarget != null && !hasReachedRetreatLocation()) {
-            if (!guard.getNavigation().isFollowingPath()) {
-                guard.getNavigation().startMovingTo(
-                    retreatTarget.getX(),
-                    retreatTarget.getY(),
-                    retreatTarget.getZ(),
-                    1.0
-                );
+            if (!guard.getNavigation().isFollowingPath() && !moveToRetreatTarget()) {
+                retreatTarget = findRetreatLocation();
+                stuckDetector.reset();
             }
         } else {
             // At retreat location, regenerate health
@@ -126,33 +143,63 @@ public class GuardRetreatGoal extends Goal {
     }
 
     /**
-     * Finds a safe location to retreat to
+     * Starts moving to the retreat location at full speed (skipping recently failed searches)
+     *
+     * @return true if the guard is moving
+     */
+    private boolean moveToRetreatTarget() {
+        if (guard.getWorld() instanceof ServerWorld serverWorld) {
+            return GuardPathfinder.moveTo(serverWorld, guard, retreatTarget, 1.0);
+        }
+        return guard.getNavigation().startMovingTo(retreatTarget.getX(), retreatTarget.getY(), retreatTarget.getZ(), 1.0);
+    }
+
+    /**
+     * Finds a safe location to retreat to, skipping locations the guard recently failed to reach
      */
     private BlockPos findRetreatLocation() {
         // Try to retreat to guard post if available
         BlockPos guardPost = findGuardPost();
-        if (guardPost != null) {
+        if (guardPost != null && isReachable(guardPost)) {
             return guardPost;
         }
 
-        // Otherwise, retreat away from current threat
+        // Otherwise, climb the danger field away from nearby hostiles
+        if (guard.getWorld() instanceof ServerWorld serverWorld) {
+            BlockPos safest = DangerField.get(serverWorld).findRetreatPosition(guard);
+            if (safest != null && isReachable(safest)) {
+                return safest;
+            }
+        }
+
+        // Fallback: retreat straight away from current threat
         if (guard.getAttacker() != null) {
             Vec3d guardPos = guard.getPos();
             Vec3d attackerPos = guard.getAttacker().getPos();
             Vec3d retreatDirection = guardPos.subtract(attackerPos).normalize();
-            Vec3d retreatPos = guardPos.add(retreatDirection.multiply(RETREAT_DISTANCE));
-
-            return new BlockPos(
-                (int) retreatPos.x,
-                (int) retreatPos.y,
-                (int) retreatPos.z
-            );
+            BlockPos retreatPos = BlockPos.ofFloored(guardPos.add(retreatDirection.multiply(RETREAT_DISTANCE)));
+
+            // Land the target on walkable ground rather than in a wall or mid-air
+            BlockPos surface = SurfaceResolver.findStandable(guard.getWorld(),
+                retreatPos.getX(), retreatPos.getY(), retreatPos.getZ(), SURFACE_SEARCH_RANGE);
+            BlockPos awayPos = surface != null ? surface : retreatPos;
+            if (isReachable(awayPos)) {
+                return awayPos;
+            }
         }
 
-        // Fallback: retreat to current position
+        // Fallback: hold the current position and regenerate there
         return guard.getBlockPos();
     }
 
+    /**
+     * Checks that a location is not blacklisted or backed off for this guard
+     */
+    private boolean isReachable(BlockPos pos) {
+        return !(guard.getWorld() instanceof ServerWorld serverWorld)
+            || !PathFailureCache.get(serverWorld).isBlocked(guard, pos);
+    }
+
     /**
      * Finds the guard's associated guard post
      */
@@ -167,13 +214,17 @@ public class GuardRetreatGoal extends Goal {
             if (globalPos.dimension().equals(guard.getWorld().getRegistryKey())) {
                 BlockPos pos = globalPos.pos();
                 // Verify it's actually a guard post
-                if (guard.getWorld().getBlockState(pos).getBlock()
-                    instanceof com.xeenaa.villagermanager.block.GuardPostBlock) {
+                if (GuardWorldAccess.isGuardPost(guard.getWorld(), pos)) {
                     return pos;
                 }
             }
         }
 
+        // Otherwise the post the guard patrols, if one was assigned
+        if (guard.getWorld() instanceof ServerWorld serverWorld) {
+            return GuardPostLocator.get(serverWorld).getAssignedPost(guard.getUuid());
+        }
+
         return null;
     }
 
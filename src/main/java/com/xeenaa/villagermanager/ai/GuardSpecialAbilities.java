@@ -1,11 +1,14 @@
 package com.xeenaa.villagermanager.ai;
 
+import com.xeenaa.villagermanager.ai.performance.HostileEntityIndex;
+import com.xeenaa.villagermanager.ai.performance.LineOfSightCache;
 import com.xeenaa.villagermanager.data.GuardData;
 import com.xeenaa.villagermanager.data.GuardDataManager;
 import com.xeenaa.villagermanager.data.rank.GuardRankData;
 import net.minecraft.entity.LivingEntity;
 import net.minecraft.entity.effect.StatusEffectInstance;
 import net.minecraft.entity.effect.StatusEffects;
+import net.minecraft.entity.mob.HostileEntity;
 import net.minecraft.entity.passive.VillagerEntity;
 import net.minecraft.entity.projectile.PersistentProjectileEntity;
 import net.minecraft.entity.projectile.ArrowEntity;
@@ -26,6 +29,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.function.Predicate;
 
 /**
  * Manages special abilities for guard villagers based on rank and specialization.
@@ -104,6 +108,15 @@ public class GuardSpecialAbilities {
         }
     }
 
+    /**
+     * Advances all cooldowns by several ticks at once (catch-up after dormancy)
+     */
+    public void advanceCooldowns(int ticks) {
+        for (AbilityType ability : AbilityType.values()) {
+            cooldowns.put(ability, Math.max(0, cooldowns.get(ability) - ticks));
+        }
+    }
+
     /**
      * Checks if an ability is available (not on cooldown and rank requirement met)
      */
@@ -222,11 +235,10 @@ public class GuardSpecialAbilities {
         float damage = (float) guard.getAttributeValue(net.minecraft.entity.attribute.EntityAttributes.GENERIC_ATTACK_DAMAGE) * 0.6f;
 
         Box searchBox = Box.of(guard.getPos(), 5, 3, 5);
-        List<LivingEntity> nearbyEnemies = guard.getWorld().getEntitiesByClass(
-            LivingEntity.class, searchBox,
-            entity -> entity != guard && entity != target && guard.canTarget(entity));
+        List<HostileEntity> nearbyEnemies = getHostilesInBox(searchBox,
+            entity -> entity != target && guard.canTarget(entity));
 
-        for (LivingEntity enemy : nearbyEnemies) {
+        for (HostileEntity enemy : nearbyEnemies) {
             if (guard.squaredDistanceTo(enemy) <= 6.25) { // 2.5 block radius
                 enemy.damage(guard.getDamageSources().mobAttack(guard), damage);
                 enemy.takeKnockback(0.3, guard.getX() - enemy.getX(), guard.getZ() - enemy.getZ());
@@ -268,11 +280,10 @@ public class GuardSpecialAbilities {
 
         // Area damage
         Box searchBox = Box.of(guard.getPos(), 6, 3, 6);
-        List<LivingEntity> nearbyEnemies = guard.getWorld().getEntitiesByClass(
-            LivingEntity.class, searchBox,
-            entity -> entity != guard && entity != target && guard.canTarget(entity));
+        List<HostileEntity> nearbyEnemies = getHostilesInBox(searchBox,
+            entity -> entity != target && guard.canTarget(entity));
 
-        for (LivingEntity enemy : nearbyEnemies) {
+        for (HostileEntity enemy : nearbyEnemies) {
             if (guard.squaredDistanceTo(enemy) <= 9) { // 3 block radius
                 enemy.damage(guard.getDamageSources().mobAttack(guard), damage * 0.8f);
                 enemy.takeKnockback(1.0, guard.getX() - enemy.getX(), guard.getZ() - enemy.getZ());
@@ -290,14 +301,12 @@ public class GuardSpecialAbilities {
 
     private boolean executeTaunt() {
         Box searchBox = Box.of(guard.getPos(), 16, 8, 16);
-        List<LivingEntity> nearbyEnemies = guard.getWorld().getEntitiesByClass(
-            LivingEntity.class, searchBox,
-            entity -> entity != guard && guard.canTarget(entity));
+        List<HostileEntity> nearbyEnemies = getHostilesInBox(searchBox, guard::canTarget);
 
         int taunted = 0;
-        for (LivingEntity enemy : nearbyEnemies) {
-            if (guard.squaredDistanceTo(enemy) <= 64 && enemy instanceof net.minecraft.entity.mob.MobEntity mobEntity) {
-                mobEntity.setTarget(guard);
+        for (HostileEntity enemy : nearbyEnemies) {
+            if (guard.squaredDistanceTo(enemy) <= 64) {
+                enemy.setTarget(guard);
                 taunted++;
             }
         }
@@ -418,14 +427,16 @@ public class GuardSpecialAbilities {
 
         // Find a second target nearby
         double DETECTION_RANGE = 15.0;
-        Box searchBox = Box.of(guard.getPos(), DETECTION_RANGE * 2, DETECTION_RANGE * 2, DETECTION_RANGE * 2);
-        List<LivingEntity> nearbyEnemies = guard.getWorld().getEntitiesByClass(
-            LivingEntity.class, searchBox,
-            entity -> entity != guard &&
-                     entity != target &&
-                     entity.isAlive() &&
+        if (!(guard.getWorld() instanceof ServerWorld serverWorld)) {
+            return false;
+        }
+        List<HostileEntity> nearbyEnemies = HostileEntityIndex.get(serverWorld).getHostilesInRange(
+            guard.getPos(),
+            DETECTION_RANGE,
+            HostileEntityIndex.DEFAULT_VERTICAL_RANGE,
+            entity -> entity != target &&
                      guard.canTarget(entity) &&
-                     guard.canSee(entity)
+                     LineOfSightCache.get(serverWorld).canSee(guard, entity)
         );
 
         LOGGER.info("[DOUBLE SHOT EXEC] Found {} potential secondary targets", nearbyEnemies.size());
@@ -434,7 +445,7 @@ public class GuardSpecialAbilities {
         double closestDistance = DETECTION_RANGE;
 
         // Find the closest valid secondary target
-        for (LivingEntity entity : nearbyEnemies) {
+        for (HostileEntity entity : nearbyEnemies) {
             double distance = guard.squaredDistanceTo(entity);
             if (Math.sqrt(distance) < closestDistance) {
                 secondaryTarget = entity;
@@ -492,6 +503,16 @@ public class GuardSpecialAbilities {
         guard.getWorld().spawnEntity(arrow);
     }
 
+    /**
+     * Gets hostiles intersecting a box from the shared per-tick hostile index
+     */
+    private List<HostileEntity> getHostilesInBox(Box box, Predicate<HostileEntity> filter) {
+        if (!(guard.getWorld() instanceof ServerWorld serverWorld)) {
+            return List.of();
+        }
+        return HostileEntityIndex.get(serverWorld).getHostilesInBox(box, filter);
+    }
+
     /**
      * Spawns particles for visual effects
      */
@@ -0,0 +1,132 @@
+package com.xeenaa.villagermanager.ai.performance;
+
+import com.xeenaa.villagermanager.config.ModConfig;
+import net.minecraft.server.world.ServerWorld;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Feedback controller that scales guard LOD intervals and distance bands to hold a
+ * target MSPT (milliseconds per server tick).
+ *
+ * <p>Once per second the server's average tick duration is compared to the configured
+ * target:</p>
+ * <ul>
+ *   <li>Above target: the scale grows, so intervals get longer and distance bands shrink</li>
+ *   <li>Well below target: the scale shrinks back, down to below 1 on an idle server,
+ *       giving guards more frequent updates than the defaults</li>
+ * </ul>
+ *
+ * <p>The {@link GuardAIScheduler} applies the scale to its base intervals and distances;
+ * combat-engaged guards near players keep a configured floor cadence regardless.</p>
+ *
+ * @since 1.0.0
+ */
+public class AdaptiveLodController {
+    private static final Map<String, AdaptiveLodController> INSTANCES = new ConcurrentHashMap<>();
+
+    static final double MIN_SCALE = 0.5;
+    static final double MAX_SCALE = 4.0;
+    static final double SCALE_STEP = 1.15;        // Multiplicative step per adjustment
+    static final double HEADROOM = 0.8;           // Relax only when MSPT is below 80% of target
+
+    private static final int ADJUST_INTERVAL = 20; // Adjust once per second
+
+    private final ServerWorld world;
+    private double scale = 1.0;
+    private int lastAdjustTick;
+
+    /**
+     * Gets or creates the controller for the specified world.
+     *
+     * @param world The server world
+     * @return The controller for this world
+     */
+    public static AdaptiveLodController get(ServerWorld world) {
+        return INSTANCES.computeIfAbsent(world.getRegistryKey().getValue().toString(),
+            k -> new AdaptiveLodController(world));
+    }
+
+    /**
+     * Clears all controllers (for cleanup).
+     */
+    public static void clearAll() {
+        INSTANCES.clear();
+    }
+
+    private AdaptiveLodController(ServerWorld world) {
+        this.world = world;
+    }
+
+    /**
+     * Samples the server tick time and adjusts the scale. Called once per server tick.
+     */
+    public void tick() {
+        int currentTick = world.getServer().getTicks();
+        if (currentTick - lastAdjustTick < ADJUST_INTERVAL) {
+            return;
+        }
+        lastAdjustTick = currentTick;
+
+        double targetMspt = ModConfig.getInstance().getPerformanceSettings().adaptive_lod_target_mspt;
+        if (targetMspt <= 0) {
+            scale = 1.0; // Adaptation disabled: use the base LOD settings
+            return;
+        }
+
+        double mspt = world.getServer().getAverageNanosPerTick() / 1_000_000.0;
+        scale = adjustScale(scale, mspt, targetMspt);
+    }
+
+    /**
+     * Gets the current scale (1.0 means the base LOD settings).
+     *
+     * @return The LOD scale
+     */
+    public double getScale() {
+        return scale;
+    }
+
+    /**
+     * Scales a base interval. Suspended intervals stay suspended.
+     *
+     * @param baseInterval The base interval in ticks
+     * @return The scaled interval, at least 1 tick
+     */
+    public int scaleInterval(int baseInterval) {
+        if (baseInterval == Integer.MAX_VALUE) {
+            return baseInterval;
+        }
+        return Math.max(1, (int) Math.round(baseInterval * scale));
+    }
+
+    /**
+     * Scales a base distance band. Bands shrink as the scale grows, moving guards into
+     * slower LOD tiers sooner.
+     *
+     * @param baseDistance The base distance in blocks
+     * @return The scaled distance
+     */
+    public double scaleDistance(double baseDistance) {
+        return baseDistance / scale;
+    }
+
+    /**
+     * Computes the next scale from the measured and target MSPT.
+     *
+     * @param scale The current scale
+     * @param mspt Measured average milliseconds per tick
+     * @param targetMspt Target milliseconds per tick
+     * @return The adjusted scale, clamped to [{@link #MIN_SCALE}, {@link #MAX_SCALE}]
+     */
+    static double adjustScale(double scale, double mspt, double targetMspt) {
+        if (mspt > targetMspt) {
+            return Math.min(MAX_SCALE, scale * SCALE_STEP);
+        }
+        if (mspt < targetMspt * HEADROOM) {
+            return Math.max(MIN_SCALE, scale / SCALE_STEP);
+        }
+        return scale; // Inside the dead band: hold steady
+    }
+}
@@ -0,0 +1,128 @@
+package com.xeenaa.villagermanager.ai.performance;
+
+import it.unimi.dsi.fastutil.longs.Long2IntMap;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectIterator;
+import net.minecraft.block.BlockState;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkSectionPos;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tracks the last tick each chunk section had a block change, for guard AI cache invalidation.
+ *
+ * <p>Caches record the tick their entry was computed and the chunk sections it depends on.
+ * An entry is stale once any of those sections changed after it was computed. Stamps are
+ * retained for {@link #RETENTION_TICKS}; queries about older ticks conservatively report
+ * a change, so caches using this tracker must have a shorter lifetime.</p>
+ *
+ * <p>Fed by {@link com.xeenaa.villagermanager.mixin.ServerWorldBlockChangeMixin}.</p>
+ *
+ * @since 1.0.0
+ */
+public class BlockChangeTracker {
+    private static final Map<String, BlockChangeTracker> INSTANCES = new ConcurrentHashMap<>();
+
+    /**
+     * How long (in ticks) section change stamps are kept.
+     */
+    public static final int RETENTION_TICKS = 2400; // 2 minutes
+
+    private final ServerWorld world;
+    private final Long2IntMap sectionChangeTicks;
+    private int lastPruneTick;
+
+    /**
+     * Gets or creates the block change tracker for the specified world.
+     *
+     * @param world The server world
+     * @return The tracker instance for this world
+     */
+    public static BlockChangeTracker get(ServerWorld world) {
+        return INSTANCES.computeIfAbsent(world.getRegistryKey().getValue().toString(),
+            k -> new BlockChangeTracker(world));
+    }
+
+    /**
+     * Clears all trackers (for cleanup).
+     */
+    public static void clearAll() {
+        INSTANCES.clear();
+    }
+
+    private BlockChangeTracker(ServerWorld world) {
+        this.world = world;
+        this.sectionChangeTicks = new Long2IntOpenHashMap();
+        this.lastPruneTick = 0;
+    }
+
+    /**
+     * Records a block change.
+     *
+     * @param pos The changed position
+     * @param oldState The previous block state
+     * @param newState The new block state
+     */
+    public void onBlockChanged(BlockPos pos, BlockState oldState, BlockState newState) {
+        int currentTick = world.getServer().getTicks();
+        long sectionKey = ChunkSectionPos.asLong(
+            ChunkSectionPos.getSectionCoord(pos.getX()),
+            ChunkSectionPos.getSectionCoord(pos.getY()),
+            ChunkSectionPos.getSectionCoord(pos.getZ()));
+        sectionChangeTicks.put(sectionKey, currentTick);
+        pruneIfNeeded(currentTick);
+    }
+
+    /**
+     * Checks whether a chunk section had a block change after the given tick.
+     *
+     * @param sectionKey Packed chunk section position ({@link ChunkSectionPos#asLong})
+     * @param sinceTick The tick the caller's data was computed
+     * @return true if the section changed after {@code sinceTick} (or the tick is too old to tell)
+     */
+    public boolean hasChangedSince(long sectionKey, int sinceTick) {
+        int currentTick = world.getServer().getTicks();
+        if (currentTick - sinceTick >= RETENTION_TICKS) {
+            return true;
+        }
+
+        int changeTick = sectionChangeTicks.getOrDefault(sectionKey, Integer.MIN_VALUE);
+        return changeTick >= sinceTick && changeTick != Integer.MIN_VALUE;
+    }
+
+    /**
+     * Checks whether any of the given chunk sections changed after the given tick.
+     *
+     * @param sectionKeys Packed chunk section positions
+     * @param sinceTick The tick the caller's data was computed
+     * @return true if at least one section changed
+     */
+    public boolean hasAnyChangedSince(long[] sectionKeys, int sinceTick) {
+        for (long sectionKey : sectionKeys) {
+            if (hasChangedSince(sectionKey, sinceTick)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Drops stamps older than the retention window.
+     */
+    private void pruneIfNeeded(int currentTick) {
+        if (currentTick - lastPruneTick < RETENTION_TICKS) {
+            return;
+        }
+        lastPruneTick = currentTick;
+
+        ObjectIterator<Long2IntMap.Entry> iterator = sectionChangeTicks.long2IntEntrySet().iterator();
+        while (iterator.hasNext()) {
+            if (currentTick - iterator.next().getIntValue() >= RETENTION_TICKS) {
+                iterator.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,434 @@
+package com.xeenaa.villagermanager.ai.performance;
+
+import it.unimi.dsi.fastutil.ints.IntArrayFIFOQueue;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.objects.ObjectIterator;
+import it.unimi.dsi.fastutil.objects.Reference2LongMap;
+import it.unimi.dsi.fastutil.objects.Reference2LongOpenHashMap;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.mob.HostileEntity;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.world.Heightmap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Coarse per-region danger field and vantage-point index for guard movement decisions.
+ *
+ * <p>The mod has no village entity, so guarded areas are modelled as
+ * {@value #REGION_SIZE}-block square regions, created when a guard in them first asks for
+ * a retreat or vantage point and dropped after {@link #REGION_EXPIRY_TICKS} without
+ * queries. Each region holds a grid of {@value #CELL_SIZE}-block cells (with a margin so
+ * hostiles just outside still count) storing:</p>
+ * <ul>
+ *   <li>Hostile counts per cell, updated incrementally as hostiles cross cells</li>
+ *   <li>Chebyshev distance (in cells) to the nearest hostile cell, lowered in place when a
+ *       hostile enters a cell and recomputed lazily when one leaves</li>
+ *   <li>An index of elevated standable cells (vantage points) from the heightmap,
+ *       rebuilt when a block changes in a section it covers</li>
+ * </ul>
+ *
+ * <p>Retreat is then a gradient ascent over the distance grid, and high ground a scan of
+ * a few indexed cells, instead of a search of the world.</p>
+ *
+ * @since 1.0.0
+ */
+public class DangerField {
+    private static final Map<String, DangerField> INSTANCES = new ConcurrentHashMap<>();
+
+    /**
+     * Width (in blocks) of a danger field cell.
+     */
+    public static final int CELL_SIZE = 4;
+
+    /**
+     * Width (in blocks) of a region, not counting its margin.
+     */
+    public static final int REGION_SIZE = 64;
+
+    /**
+     * Distance reported for cells with no hostile within {@link #MAX_DISTANCE_CELLS}.
+     */
+    public static final int SAFE = Integer.MAX_VALUE;
+
+    private static final int REGION_CELLS = REGION_SIZE / CELL_SIZE;
+    private static final int MARGIN_CELLS = 4;
+    private static final int GRID = REGION_CELLS + 2 * MARGIN_CELLS;
+    private static final int MAX_DISTANCE_CELLS = 8;      // 32 blocks
+    private static final int MAX_RETREAT_STEPS = 6;       // 24 blocks
+    private static final int VANTAGE_RISE = 2;            // Blocks above the lowest neighbouring cell
+    private static final int VANTAGE_MAX_AGE = 1200;      // Inside the block change retention
+    private static final int REGION_EXPIRY_TICKS = 1200;
+    private static final int CLEANUP_INTERVAL = 600;
+    private static final long NO_CELL = Long.MIN_VALUE;
+
+    private final ServerWorld world;
+    private final Long2ObjectMap<Region> regions;
+    private final Reference2LongMap<HostileEntity> hostileCells;
+    private int lastCleanupTick;
+
+    /**
+     * Gets or creates the danger field for the specified world.
+     *
+     * @param world The server world
+     * @return The danger field for this world
+     */
+    public static DangerField get(ServerWorld world) {
+        return INSTANCES.computeIfAbsent(world.getRegistryKey().getValue().toString(),
+            k -> new DangerField(world));
+    }
+
+    /**
+     * Clears all danger fields (for cleanup).
+     */
+    public static void clearAll() {
+        INSTANCES.clear();
+    }
+
+    private DangerField(ServerWorld world) {
+        this.world = world;
+        this.regions = new Long2ObjectOpenHashMap<>();
+        this.hostileCells = new Reference2LongOpenHashMap<>();
+        this.hostileCells.defaultReturnValue(NO_CELL);
+    }
+
+    /**
+     * Moves hostile counts for hostiles that crossed a cell and expires idle regions.
+     * Called once per server tick; does nothing while no region is active.
+     */
+    public void tick() {
+        if (regions.isEmpty()) {
+            hostileCells.clear();
+            return;
+        }
+
+        int currentTick = world.getServer().getTicks();
+        if (currentTick - lastCleanupTick >= CLEANUP_INTERVAL) {
+            lastCleanupTick = currentTick;
+            regions.values().removeIf(region -> currentTick - region.lastQueryTick > REGION_EXPIRY_TICKS);
+        }
+
+        syncHostiles();
+    }
+
+    /**
+     * Finds a retreat position by climbing the danger gradient away from hostiles.
+     *
+     * @param guard The retreating guard
+     * @return A standable position farther from hostiles, or null if the guard's area has
+     *         no hostile nearby (or no better cell was found)
+     */
+    public BlockPos findRetreatPosition(Entity guard) {
+        Region region = regionFor(guard.getBlockPos());
+        int cellX = Math.floorDiv(guard.getBlockX(), CELL_SIZE) - region.originCellX;
+        int cellZ = Math.floorDiv(guard.getBlockZ(), CELL_SIZE) - region.originCellZ;
+
+        int[] distances = region.distances();
+        int index = cellX + cellZ * GRID;
+        if (distances[index] == SAFE) {
+            return null; // No hostile nearby: nothing to run from
+        }
+
+        for (int step = 0; step < MAX_RETREAT_STEPS && distances[index] != SAFE; step++) {
+            int bestIndex = index;
+            for (int dx = -1; dx <= 1; dx++) {
+                for (int dz = -1; dz <= 1; dz++) {
+                    int x = cellX + dx;
+                    int z = cellZ + dz;
+                    if (x < 0 || z < 0 || x >= GRID || z >= GRID) {
+                        continue;
+                    }
+                    int neighbor = x + z * GRID;
+                    if (distances[neighbor] > distances[bestIndex]) {
+                        bestIndex = neighbor;
+                    }
+                }
+            }
+            if (bestIndex == index) {
+                break; // Local maximum
+            }
+            index = bestIndex;
+            cellX = index % GRID;
+            cellZ = index / GRID;
+        }
+
+        int x = (region.originCellX + cellX) * CELL_SIZE + CELL_SIZE / 2;
+        int z = (region.originCellZ + cellZ) * CELL_SIZE + CELL_SIZE / 2;
+        return SurfaceResolver.findStandable(world, x, guard.getBlockY(), z, CELL_SIZE * 2);
+    }
+
+    /**
+     * Gets indexed vantage points near a guard that are higher than the guard and within a
+     * distance band of a target, nearest to the guard first.
+     *
+     * @param guard The guard
+     * @param target The target position
+     * @param searchRadius Maximum horizontal distance (blocks) from the guard
+     * @param minRise Minimum height above the guard
+     * @param maxRise Maximum height above the guard
+     * @param minDistance Minimum distance to the target
+     * @param maxDistance Maximum distance to the target
+     * @return Candidate standing positions (line of sight is left to the caller)
+     */
+    public List<BlockPos> findVantagePoints(Entity guard, BlockPos target, int searchRadius,
+                                            int minRise, int maxRise, double minDistance, double maxDistance) {
+        BlockPos guardPos = guard.getBlockPos();
+        Region region = regionFor(guardPos);
+        long[] vantagePoints = region.vantagePoints();
+
+        List<BlockPos> candidates = new ArrayList<>();
+        for (long packed : vantagePoints) {
+            BlockPos pos = BlockPos.fromLong(packed);
+            int rise = pos.getY() - guardPos.getY();
+            if (rise < minRise || rise > maxRise
+                    || Math.abs(pos.getX() - guardPos.getX()) > searchRadius
+                    || Math.abs(pos.getZ() - guardPos.getZ()) > searchRadius) {
+                continue;
+            }
+            double distanceSq = pos.getSquaredDistance(target);
+            if (distanceSq >= minDistance * minDistance && distanceSq <= maxDistance * maxDistance) {
+                candidates.add(pos);
+            }
+        }
+
+        candidates.sort(Comparator.comparingDouble(pos -> pos.getSquaredDistance(guardPos)));
+        return candidates;
+    }
+
+    /**
+     * Gets the number of active regions.
+     */
+    public int getRegionCount() {
+        return regions.size();
+    }
+
+    /**
+     * Gets (or creates and seeds) the region containing a position.
+     */
+    private Region regionFor(BlockPos pos) {
+        long key = ChunkPos.toLong(Math.floorDiv(pos.getX(), REGION_SIZE), Math.floorDiv(pos.getZ(), REGION_SIZE));
+        Region region = regions.get(key);
+
+        if (region == null) {
+            // Bring tracked hostiles up to date before seeding, so counts are not doubled
+            syncHostiles();
+
+            region = new Region(ChunkPos.getPackedX(key) * REGION_CELLS - MARGIN_CELLS,
+                ChunkPos.getPackedZ(key) * REGION_CELLS - MARGIN_CELLS);
+            for (Reference2LongMap.Entry<HostileEntity> entry : hostileCells.reference2LongEntrySet()) {
+                region.add(entry.getLongValue());
+            }
+            regions.put(key, region);
+        }
+
+        region.lastQueryTick = world.getServer().getTicks();
+        return region;
+    }
+
+    /**
+     * Records hostile cell changes, adds newly tracked hostiles and drops departed ones.
+     */
+    private void syncHostiles() {
+        HostileEntityIndex.get(world).forEachHostile(hostile -> {
+            long cell = cellOf(hostile);
+            long previous = hostileCells.put(hostile, cell);
+            if (previous != cell) {
+                moveHostile(previous, cell);
+            }
+        });
+
+        ObjectIterator<Reference2LongMap.Entry<HostileEntity>> iterator =
+            hostileCells.reference2LongEntrySet().iterator();
+        while (iterator.hasNext()) {
+            Reference2LongMap.Entry<HostileEntity> entry = iterator.next();
+            if (entry.getKey().isRemoved() || !entry.getKey().isAlive()) {
+                moveHostile(entry.getLongValue(), NO_CELL);
+                iterator.remove();
+            }
+        }
+    }
+
+    private void moveHostile(long fromCell, long toCell) {
+        for (Region region : regions.values()) {
+            if (fromCell != NO_CELL) {
+                region.remove(fromCell);
+            }
+            if (toCell != NO_CELL) {
+                region.add(toCell);
+            }
+        }
+    }
+
+    private static long cellOf(Entity entity) {
+        return ChunkPos.toLong(Math.floorDiv(entity.getBlockX(), CELL_SIZE), Math.floorDiv(entity.getBlockZ(), CELL_SIZE));
+    }
+
+    /**
+     * Danger grid and vantage index of one region.
+     */
+    private class Region {
+        final int originCellX;
+        final int originCellZ;
+        final int[] hostileCounts = new int[GRID * GRID];
+        final int[] distances = new int[GRID * GRID];
+        boolean distancesDirty = true;
+        int lastQueryTick;
+
+        long[] vantagePoints;
+        long[] vantageSections;
+        int vantageBuildTick;
+
+        Region(int originCellX, int originCellZ) {
+            this.originCellX = originCellX;
+            this.originCellZ = originCellZ;
+        }
+
+        void add(long cell) {
+            int index = indexOf(cell);
+            if (index >= 0 && hostileCounts[index]++ == 0 && !distancesDirty) {
+                lowerFrom(index); // Arrivals can only bring danger closer
+            }
+        }
+
+        void remove(long cell) {
+            int index = indexOf(cell);
+            if (index >= 0 && --hostileCounts[index] == 0) {
+                distancesDirty = true; // Departures may raise distances; recompute on query
+            }
+        }
+
+        int[] distances() {
+            if (distancesDirty) {
+                Arrays.fill(distances, SAFE);
+                for (int i = 0; i < hostileCounts.length; i++) {
+                    if (hostileCounts[i] > 0) {
+                        lowerFrom(i);
+                    }
+                }
+                distancesDirty = false;
+            }
+            return distances;
+        }
+
+        /**
+         * Breadth-first pass lowering distances around a cell that gained a hostile.
+         */
+        private void lowerFrom(int source) {
+            IntArrayFIFOQueue queue = new IntArrayFIFOQueue();
+            distances[source] = 0;
+            queue.enqueue(source);
+
+            while (!queue.isEmpty()) {
+                int index = queue.dequeueInt();
+                int next = distances[index] + 1;
+                if (next > MAX_DISTANCE_CELLS) {
+                    continue;
+                }
+
+                int x = index % GRID;
+                int z = index / GRID;
+                for (int dx = -1; dx <= 1; dx++) {
+                    for (int dz = -1; dz <= 1; dz++) {
+                        int nx = x + dx;
+                        int nz = z + dz;
+                        if (nx < 0 || nz < 0 || nx >= GRID || nz >= GRID) {
+                            continue;
+                        }
+                        int neighbor = nx + nz * GRID;
+                        if (distances[neighbor] > next) {
+                            distances[neighbor] = next;
+                            queue.enqueue(neighbor);
+                        }
+                    }
+                }
+            }
+        }
+
+        long[] vantagePoints() {
+            int currentTick = world.getServer().getTicks();
+            if (vantagePoints == null
+                    || currentTick - vantageBuildTick > VANTAGE_MAX_AGE
+                    || BlockChangeTracker.get(world).hasAnyChangedSince(vantageSections, vantageBuildTick)) {
+                buildVantageIndex(currentTick);
+            }
+            return vantagePoints;
+        }
+
+        /**
+         * Indexes cells whose surface stands above their lowest neighbouring cell.
+         */
+        private void buildVantageIndex(int currentTick) {
+            int[] surface = new int[GRID * GRID];
+            LongOpenHashSet sections = new LongOpenHashSet();
+
+            for (int z = 0; z < GRID; z++) {
+                for (int x = 0; x < GRID; x++) {
+                    int blockX = (originCellX + x) * CELL_SIZE + CELL_SIZE / 2;
+                    int blockZ = (originCellZ + z) * CELL_SIZE + CELL_SIZE / 2;
+                    int y = GuardWorldAccess.getTopY(world, Heightmap.Type.MOTION_BLOCKING_NO_LEAVES, blockX, blockZ);
+                    surface[x + z * GRID] = y;
+                    if (y == GuardWorldAccess.UNKNOWN_HEIGHT) {
+                        continue;
+                    }
+                    sections.add(ChunkSectionPos.asLong(blockX >> 4, ChunkSectionPos.getSectionCoord(y - 1), blockZ >> 4));
+                    sections.add(ChunkSectionPos.asLong(blockX >> 4, ChunkSectionPos.getSectionCoord(y + 1), blockZ >> 4));
+                }
+            }
+
+            LongArrayList points = new LongArrayList();
+            BlockPos.Mutable mutable = new BlockPos.Mutable();
+            for (int z = 0; z < GRID; z++) {
+                for (int x = 0; x < GRID; x++) {
+                    int y = surface[x + z * GRID];
+                    if (y == GuardWorldAccess.UNKNOWN_HEIGHT) {
+                        continue;
+                    }
+
+                    int lowest = y;
+                    for (int dx = -1; dx <= 1; dx++) {
+                        for (int dz = -1; dz <= 1; dz++) {
+                            int nx = x + dx;
+                            int nz = z + dz;
+                            if (nx >= 0 && nz >= 0 && nx < GRID && nz < GRID
+                                    && surface[nx + nz * GRID] != GuardWorldAccess.UNKNOWN_HEIGHT) {
+                                lowest = Math.min(lowest, surface[nx + nz * GRID]);
+                            }
+                        }
+                    }
+
+                    if (y - lowest >= VANTAGE_RISE) {
+                        mutable.set((originCellX + x) * CELL_SIZE + CELL_SIZE / 2, y,
+                            (originCellZ + z) * CELL_SIZE + CELL_SIZE / 2);
+                        if (SurfaceResolver.isStandable(world, mutable)) {
+                            points.add(mutable.asLong());
+                        }
+                    }
+                }
+            }
+
+            vantagePoints = points.toLongArray();
+            vantageSections = sections.toLongArray();
+            vantageBuildTick = currentTick;
+        }
+
+        private int indexOf(long cell) {
+            int x = ChunkPos.getPackedX(cell) - originCellX;
+            int z = ChunkPos.getPackedZ(cell) - originCellZ;
+            if (x < 0 || z < 0 || x >= GRID || z >= GRID) {
+                return -1;
+            }
+            return x + z * GRID;
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.xeenaa.villagermanager.ai.performance;
+
+import it.unimi.dsi.fastutil.objects.Object2ObjectMap;
+import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.ai.pathing.Path;
+import net.minecraft.entity.ai.pathing.PathNode;
+import net.minecraft.entity.passive.VillagerEntity;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-world formations of guards following the same entity.
+ *
+ * <p>Instead of every FOLLOW guard pathfinding to the followed entity on its own, one
+ * leader path is computed per followed entity and shared. Each guard holds a slot in the
+ * formation and follows the leader path cut short by its slot's spacing, so the escort
+ * trails the leader in a column. The leader path is only recomputed once the leader has
+ * moved away from its end or it has aged out. A guard whose position has drifted too far
+ * from the shared path's start is told to path on its own.</p>
+ *
+ * @since 1.0.0
+ */
+public class FormationManager {
+    private static final Map<String, FormationManager> INSTANCES = new ConcurrentHashMap<>();
+
+    private static final double LEADER_DRIFT = 2.0;      // Leader movement (blocks) before re-pathing
+    private static final int MAX_PATH_AGE = 60;          // 3 seconds
+    private static final double SLOT_DIVERGENCE = 4.0;   // Max distance (blocks) from the shared path start
+    private static final int FIRST_SLOT_GAP = 2;         // Nodes kept free in front of the first slot
+    private static final int SLOT_SPACING = 1;           // Extra nodes between consecutive slots
+
+    private final ServerWorld world;
+    private final Object2ObjectMap<UUID, Formation> formations;
+    private final Object2ObjectMap<UUID, UUID> leaderByGuard;
+
+    /**
+     * Gets or creates the formation manager for the specified world.
+     *
+     * @param world The server world
+     * @return The formation manager for this world
+     */
+    public static FormationManager get(ServerWorld world) {
+        return INSTANCES.computeIfAbsent(world.getRegistryKey().getValue().toString(),
+            k -> new FormationManager(world));
+    }
+
+    /**
+     * Clears all formation managers (for cleanup).
+     */
+    public static void clearAll() {
+        INSTANCES.clear();
+    }
+
+    private FormationManager(ServerWorld world) {
+        this.world = world;
+        this.formations = new Object2ObjectOpenHashMap<>();
+        this.leaderByGuard = new Object2ObjectOpenHashMap<>();
+    }
+
+    /**
+     * Gets a guard's path in the formation following a leader, joining the formation if
+     * needed.
+     *
+     * @param guard The following guard
+     * @param leader The followed entity
+     * @return A path owned by the caller, or null if the guard should path on its own (or
+     *         the leader is unreachable, in which case the failure is already recorded in
+     *         the {@link PathFailureCache} and a direct search would be skipped)
+     */
+    public Path getSlotPath(VillagerEntity guard, Entity leader) {
+        Formation formation = join(guard.getUuid(), leader.getUuid());
+        int slot = formation.members.indexOf(guard.getUuid());
+
+        int currentTick = world.getServer().getTicks();
+        if (formation.path == null
+                || currentTick - formation.pathTick > MAX_PATH_AGE
+                || !formation.leaderPos.isWithinDistance(leader.getBlockPos(), LEADER_DRIFT)) {
+            // Leader recently unreachable from here: don't search again until the backoff ends
+            PathFailureCache failures = PathFailureCache.get(world);
+            if (failures.isBlocked(guard, leader.getBlockPos())) {
+                formation.path = null;
+                return null;
+            }
+
+            // This guard computes the leader path for everyone; the result is recorded so a
+            // failure also holds back the caller's direct fallback search
+            Path path = guard.getNavigation().findPathTo(leader, 0);
+            failures.recordResult(guard.getBlockPos(), leader.getBlockPos(), path);
+            if (path == null) {
+                formation.path = null;
+                return null;
+            }
+            formation.path = PatrolPathCache.copyOf(path);
+            formation.pathTick = currentTick;
+            formation.leaderPos = leader.getBlockPos();
+        }
+
+        Path shared = formation.path;
+        if (shared.getLength() == 0
+                || !shared.getNodePos(0).isWithinDistance(guard.getBlockPos(), SLOT_DIVERGENCE)) {
+            return null; // Slot diverged from the shared path
+        }
+
+        // Trail the leader: stop short of the path end by the slot's spacing
+        int length = shared.getLength() - FIRST_SLOT_GAP - slot * SLOT_SPACING;
+        if (length <= 1) {
+            return null;
+        }
+
+        List<PathNode> nodes = new ArrayList<>(length);
+        for (int i = 0; i < length; i++) {
+            nodes.add(shared.getNode(i));
+        }
+        return new Path(nodes, shared.getNodePos(length - 1), true);
+    }
+
+    /**
+     * Removes a guard from its formation.
+     *
+     * @param guardId The guard UUID
+     */
+    public void leave(UUID guardId) {
+        UUID leaderId = leaderByGuard.remove(guardId);
+        if (leaderId == null) {
+            return;
+        }
+
+        Formation formation = formations.get(leaderId);
+        if (formation != null) {
+            formation.members.remove(guardId);
+            if (formation.members.isEmpty()) {
+                formations.remove(leaderId);
+            }
+        }
+    }
+
+    /**
+     * Gets the number of guards in the formation following a leader.
+     *
+     * @param leaderId The followed entity's UUID
+     * @return Number of guards in the formation
+     */
+    public int getFormationSize(UUID leaderId) {
+        Formation formation = formations.get(leaderId);
+        return formation != null ? formation.members.size() : 0;
+    }
+
+    private Formation join(UUID guardId, UUID leaderId) {
+        UUID current = leaderByGuard.get(guardId);
+        if (current != null && !current.equals(leaderId)) {
+            leave(guardId);
+        }
+
+        Formation formation = formations.get(leaderId);
+        if (formation == null) {
+            formation = new Formation();
+            formations.put(leaderId, formation);
+        }
+        if (leaderByGuard.put(guardId, leaderId) == null) {
+            formation.members.add(guardId);
+        }
+        return formation;
+    }
+
+    /**
+     * Guards following one leader, in slot order, and their shared leader path.
+     */
+    private static class Formation {
+        final List<UUID> members = new ArrayList<>();
+        Path path;
+        int pathTick;
+        BlockPos leaderPos = BlockPos.ORIGIN;
+    }
+}
@@ -1,11 +1,14 @@
 package com.xeenaa.villagermanager.ai.performance;
 
+import com.xeenaa.villagermanager.config.ModConfig;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import net.minecraft.entity.Entity;
 import net.minecraft.entity.passive.VillagerEntity;
-import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.server.world.ServerWorld;
-import net.minecraft.util.math.Box;
 
-import java.util.List;
+import java.util.Arrays;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
@@ -24,6 +27,31 @@ import java.util.concurrent.ConcurrentHashMap;
  * <p>This reduces AI overhead for large guard populations while maintaining responsiveness
  * for combat-active and nearby guards.</p>
  *
+ * <p>Threat detection for idle guards is event-driven: guards scan when the
+ * {@link ThreatWakeTracker} reports a hostile nearby, keep their normal interval for a
+ * short window afterwards, and otherwise only poll as a low-frequency safety net.</p>
+ *
+ * <p>Intervals only decide when a guard is due for a scan. Due scans then go through the
+ * {@link GuardWorkBudget}, which caps total scan time per tick.</p>
+ *
+ * <p>Each guard is assigned a phase bucket so guards sharing an interval run on
+ * different ticks instead of all at once (e.g. when a chunk full of guards loads).
+ * A guard is due when the most recent tick of its phase, modulo its interval, is newer
+ * than its last run. New guards join the least occupied bucket, and when a guard leaves
+ * one guard from the fullest bucket moves into the freed slot, so occupancy stays even.</p>
+ *
+ * <p>Distances and intervals above are base values. The {@link AdaptiveLodController}
+ * scales them to hold a target MSPT, while combat-engaged guards near players keep a
+ * configured floor cadence.</p>
+ *
+ * <p>Idle guards with no player within simulation distance are dormant: they skip all
+ * guard-specific ticking, and on waking get the ticks they missed back as a catch-up
+ * summary ({@link #takeWakeCatchUpTicks(VillagerEntity)}).</p>
+ *
+ * <p>Per-guard state lives in dense primitive arrays indexed by a compact slot id.
+ * Slots are allocated when a guard loads (or is first scheduled) and freed when it
+ * unloads, dies or stops being a guard, so memory is bounded by the loaded guard count.</p>
+ *
  * @since 1.0.0
  */
 public class GuardAIScheduler {
@@ -40,8 +68,34 @@ public class GuardAIScheduler {
     private static final int DISTANT_UPDATE_INTERVAL = 20;  // Every 20 ticks (1 second)
     private static final int FAR_UPDATE_INTERVAL = 100;     // Every 100 ticks (5 seconds)
 
+    // Event-driven threat detection for idle guards
+    private static final int WAKE_HOLD_TICKS = 200;             // Keep polling 10 seconds after a wake signal
+    private static final int SAFETY_NET_SCAN_INTERVAL = 600;    // Every 30 seconds without wake signals
+
+    // Phase buckets; 200 is a multiple of every finite base update and scan interval
+    private static final int PHASE_BUCKETS = 200;
+
+    private static final int NO_SLOT = -1;
+    private static final int NOT_DORMANT = -1;
+    private static final int INITIAL_CAPACITY = 16;
+
     private final ServerWorld world;
-    private final Map<UUID, GuardUpdateState> guardStates;
+    private final Object2IntMap<UUID> slotsByGuard;
+    private final IntArrayList freeSlots;
+    private final IntArrayList[] phaseBuckets;
+    private int slotCount;
+
+    // Per-guard state, indexed by slot
+    private int[] lastUpdateTick;
+    private int[] lastThreatScanTick;
+    private int[] updateInterval;
+    private int[] combatStartTick;
+    private int[] phase;
+    private int[] elapsedTicks;
+    private boolean[] inCombat;
+    private int[] dormantSinceTick;
+    private int[] lastDormancyCheckTick;
+    private int[] wakeCatchUpTicks;
 
     /**
      * Gets or creates a scheduler for the specified world.
@@ -63,7 +117,46 @@ public class GuardAIScheduler {
 
     private GuardAIScheduler(ServerWorld world) {
         this.world = world;
-        this.guardStates = new ConcurrentHashMap<>();
+        this.slotsByGuard = new Object2IntOpenHashMap<>();
+        this.slotsByGuard.defaultReturnValue(NO_SLOT);
+        this.freeSlots = new IntArrayList();
+        this.phaseBuckets = new IntArrayList[PHASE_BUCKETS];
+        for (int i = 0; i < PHASE_BUCKETS; i++) {
+            phaseBuckets[i] = new IntArrayList();
+        }
+
+        this.lastUpdateTick = new int[INITIAL_CAPACITY];
+        this.lastThreatScanTick = new int[INITIAL_CAPACITY];
+        this.updateInterval = new int[INITIAL_CAPACITY];
+        this.combatStartTick = new int[INITIAL_CAPACITY];
+        this.phase = new int[INITIAL_CAPACITY];
+        this.elapsedTicks = new int[INITIAL_CAPACITY];
+        this.inCombat = new boolean[INITIAL_CAPACITY];
+        this.dormantSinceTick = new int[INITIAL_CAPACITY];
+        this.lastDormancyCheckTick = new int[INITIAL_CAPACITY];
+        this.wakeCatchUpTicks = new int[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Allocates a slot for an entity if it is a guard.
+     *
+     * @param entity The entity that was loaded into the world
+     */
+    public void onEntityLoad(Entity entity) {
+        if (entity instanceof VillagerEntity villager && GuardRegistry.isGuard(villager)) {
+            slotOf(villager.getUuid(), world.getServer().getTicks());
+        }
+    }
+
+    /**
+     * Frees the slot of an entity that was unloaded, removed or died.
+     *
+     * @param entity The entity leaving the world
+     */
+    public void onEntityUnload(Entity entity) {
+        if (entity instanceof VillagerEntity villager) {
+            removeGuard(villager.getUuid());
+        }
     }
 
     /**
@@ -73,27 +166,47 @@ public class GuardAIScheduler {
      * @return true if the guard should update AI this tick
      */
     public boolean shouldUpdateAI(VillagerEntity guard) {
-        UUID guardId = guard.getUuid();
         int currentTick = world.getServer().getTicks();
 
-        // Get or create guard state
-        GuardUpdateState state = guardStates.computeIfAbsent(guardId,
-            id -> new GuardUpdateState(currentTick));
+        // Get or allocate the guard's slot
+        int slot = slotOf(guard.getUuid(), currentTick);
 
         // Determine update interval based on guard status
-        int updateInterval = calculateUpdateInterval(guard, state);
+        int interval = calculateUpdateInterval(guard, slot);
 
-        // Check if enough ticks have passed since last update
-        boolean shouldUpdate = (currentTick - state.lastUpdateTick) >= updateInterval;
+        // Check if the guard's phase slot for this interval has come around since last update
+        boolean shouldUpdate = isDue(currentTick, lastUpdateTick[slot], phase[slot], interval);
 
         if (shouldUpdate) {
-            state.lastUpdateTick = currentTick;
-            state.updateInterval = updateInterval;
+            elapsedTicks[slot] = Math.max(1, currentTick - lastUpdateTick[slot]);
+            lastUpdateTick[slot] = currentTick;
+            updateInterval[slot] = interval;
         }
 
         return shouldUpdate;
     }
 
+    /**
+     * Gets how far a guard's goals should advance their countdowns on this update.
+     *
+     * <p>Goals only tick when {@link #shouldUpdateAI(VillagerEntity)} lets them, so
+     * cooldowns and timers must advance by the ticks elapsed since the previous update
+     * rather than by one per call to behave the same at every cadence.</p>
+     *
+     * @param guard The guard villager
+     * @return Ticks since the guard's previous AI update (at least 1)
+     */
+    public static int getElapsedTicks(VillagerEntity guard) {
+        if (guard.getWorld() instanceof ServerWorld serverWorld) {
+            GuardAIScheduler scheduler = get(serverWorld);
+            int slot = scheduler.slotsByGuard.getInt(guard.getUuid());
+            if (slot != NO_SLOT) {
+                return scheduler.elapsedTicks[slot];
+            }
+        }
+        return 1;
+    }
+
     /**
      * Determines if a guard should perform threat detection this tick.
      * Threat detection is more expensive, so it has its own scheduling.
@@ -105,31 +218,105 @@ public class GuardAIScheduler {
         UUID guardId = guard.getUuid();
         int currentTick = world.getServer().getTicks();
 
-        GuardUpdateState state = guardStates.computeIfAbsent(guardId,
-            id -> new GuardUpdateState(currentTick));
+        int slot = slotOf(guardId, currentTick);
 
         // Threat detection has different intervals than general AI
-        int detectionInterval = calculateThreatDetectionInterval(guard, state);
+        int detectionInterval = calculateThreatDetectionInterval(guard, slot);
+
+        boolean idle = !inCombat[slot] && guard.getTarget() == null;
+        if (idle && ModConfig.getInstance().getPerformanceSettings().event_driven_threat_wakeup) {
+            ThreatWakeTracker wakeTracker = ThreatWakeTracker.get(world);
+            wakeTracker.watch(guard);
+
+            int lastWakeTick = wakeTracker.getLastWakeTick(guardId);
+            if (lastWakeTick > lastThreatScanTick[slot]) {
+                // A hostile just came near: scan right away
+                detectionInterval = 0;
+            } else if ((lastWakeTick == Integer.MIN_VALUE || currentTick - lastWakeTick > WAKE_HOLD_TICKS)
+                    && !wakeTracker.hasHostileInWatchArea(guardId)) {
+                // Quiet (no hostile anywhere in the watch area): only poll as a safety net
+                detectionInterval = Math.max(detectionInterval, SAFETY_NET_SCAN_INTERVAL);
+            }
+        }
 
-        boolean shouldDetect = (currentTick - state.lastThreatScanTick) >= detectionInterval;
+        boolean shouldDetect = isDue(currentTick, lastThreatScanTick[slot], phase[slot], detectionInterval);
+
+        // Due guards still need room in this tick's work budget; otherwise they wait their turn
+        if (shouldDetect && !GuardWorkBudget.get(world).tryAcquire(guard, GuardWorkBudget.WorkType.THREAT_SCAN, !idle,
+                updateInterval[slot])) {
+            return false;
+        }
 
         if (shouldDetect) {
-            state.lastThreatScanTick = currentTick;
+            lastThreatScanTick[slot] = currentTick;
         }
 
         return shouldDetect;
     }
 
+    /**
+     * Checks whether a guard is dormant: idle, with no player within simulation distance.
+     * Dormant guards should skip all guard-specific ticking. Called every tick from the
+     * guard's own tick; ticks the guard was not ticked at all (e.g. its chunk stopped
+     * ticking) count as dormant time too.
+     *
+     * @param guard The guard villager
+     * @return true if the guard is dormant this tick
+     */
+    public boolean isDormant(VillagerEntity guard) {
+        int currentTick = world.getServer().getTicks();
+        int slot = slotOf(guard.getUuid(), currentTick);
+        if (lastDormancyCheckTick[slot] == currentTick) {
+            return dormantSinceTick[slot] != NOT_DORMANT;
+        }
+
+        // Ticks the guard missed entirely are caught up on like dormant ones
+        int missedTicks = currentTick - lastDormancyCheckTick[slot] - 1;
+        if (missedTicks > 0 && dormantSinceTick[slot] == NOT_DORMANT) {
+            wakeCatchUpTicks[slot] += missedTicks;
+        }
+        lastDormancyCheckTick[slot] = currentTick;
+
+        boolean idle = !inCombat[slot] && guard.getTarget() == null;
+        int simulationDistance = world.getServer().getPlayerManager().getSimulationDistance();
+        boolean dormant = idle && PlayerDistanceField.get(world).getChunkDistance(guard) > simulationDistance;
+
+        if (dormant && dormantSinceTick[slot] == NOT_DORMANT) {
+            dormantSinceTick[slot] = currentTick;
+        } else if (!dormant && dormantSinceTick[slot] != NOT_DORMANT) {
+            wakeCatchUpTicks[slot] += currentTick - dormantSinceTick[slot];
+            dormantSinceTick[slot] = NOT_DORMANT;
+        }
+        return dormant;
+    }
+
+    /**
+     * Takes the number of ticks a guard spent dormant (or unticked) since it was last
+     * caught up, so callers can apply summarized effects such as regeneration.
+     *
+     * @param guard The guard villager
+     * @return Ticks to catch up on, or 0 if there are none
+     */
+    public int takeWakeCatchUpTicks(VillagerEntity guard) {
+        int slot = slotsByGuard.getInt(guard.getUuid());
+        if (slot == NO_SLOT) {
+            return 0;
+        }
+        int ticks = wakeCatchUpTicks[slot];
+        wakeCatchUpTicks[slot] = 0;
+        return ticks;
+    }
+
     /**
      * Marks a guard as entering combat (increases update frequency).
      *
      * @param guard The guard entering combat
      */
     public void markCombatActive(VillagerEntity guard) {
-        GuardUpdateState state = guardStates.get(guard.getUuid());
-        if (state != null) {
-            state.inCombat = true;
-            state.combatStartTick = world.getServer().getTicks();
+        int slot = slotsByGuard.getInt(guard.getUuid());
+        if (slot != NO_SLOT) {
+            inCombat[slot] = true;
+            combatStartTick[slot] = world.getServer().getTicks();
         }
     }
 
@@ -139,41 +326,156 @@ public class GuardAIScheduler {
      * @param guard The guard leaving combat
      */
     public void markCombatInactive(VillagerEntity guard) {
-        GuardUpdateState state = guardStates.get(guard.getUuid());
-        if (state != null) {
-            state.inCombat = false;
+        int slot = slotsByGuard.getInt(guard.getUuid());
+        if (slot != NO_SLOT) {
+            inCombat[slot] = false;
         }
     }
 
     /**
-     * Cleans up state for a guard that no longer exists.
+     * Frees the slot of a guard that no longer exists or is no longer a guard.
      *
      * @param guardId The guard UUID
      */
     public void removeGuard(UUID guardId) {
-        guardStates.remove(guardId);
+        int slot = slotsByGuard.removeInt(guardId);
+        if (slot == NO_SLOT) {
+            return;
+        }
+
+        int freedPhase = phase[slot];
+        IntArrayList freed = phaseBuckets[freedPhase];
+        freed.rem(slot);
+        freeSlots.add(slot);
+
+        // Refill the freed phase from the fullest bucket if occupancy drifted apart
+        IntArrayList fullest = freed;
+        for (IntArrayList bucket : phaseBuckets) {
+            if (bucket.size() > fullest.size()) {
+                fullest = bucket;
+            }
+        }
+        if (fullest.size() - freed.size() > 1) {
+            int moved = fullest.removeInt(fullest.size() - 1);
+            freed.add(moved);
+            phase[moved] = freedPhase;
+        }
     }
 
     /**
-     * Calculates the appropriate AI update interval for a guard.
+     * Gets the number of guards currently holding a scheduler slot.
+     *
+     * @return Number of scheduled guards
      */
-    private int calculateUpdateInterval(VillagerEntity guard, GuardUpdateState state) {
-        // Combat-active guards always update every tick
-        if (state.inCombat || guard.getTarget() != null) {
-            state.inCombat = true;
-            return ACTIVE_UPDATE_INTERVAL;
+    public int getGuardCount() {
+        return slotsByGuard.size();
+    }
+
+    /**
+     * Gets the slot for a guard, allocating one (and a phase bucket) on first sight.
+     */
+    private int slotOf(UUID guardId, int currentTick) {
+        int slot = slotsByGuard.getInt(guardId);
+        if (slot != NO_SLOT) {
+            return slot;
+        }
+
+        if (!freeSlots.isEmpty()) {
+            slot = freeSlots.popInt();
+        } else {
+            if (slotCount == phase.length) {
+                grow(slotCount * 2);
+            }
+            slot = slotCount++;
         }
 
+        lastUpdateTick[slot] = currentTick;
+        lastThreatScanTick[slot] = currentTick;
+        updateInterval[slot] = IDLE_UPDATE_INTERVAL;
+        combatStartTick[slot] = 0;
+        elapsedTicks[slot] = 1;
+        dormantSinceTick[slot] = NOT_DORMANT;
+        lastDormancyCheckTick[slot] = currentTick;
+        wakeCatchUpTicks[slot] = 0;
+        inCombat[slot] = false;
+        phase[slot] = assignPhase(guardId, slot);
+        slotsByGuard.put(guardId, slot);
+        return slot;
+    }
+
+    private void grow(int capacity) {
+        lastUpdateTick = Arrays.copyOf(lastUpdateTick, capacity);
+        lastThreatScanTick = Arrays.copyOf(lastThreatScanTick, capacity);
+        updateInterval = Arrays.copyOf(updateInterval, capacity);
+        combatStartTick = Arrays.copyOf(combatStartTick, capacity);
+        phase = Arrays.copyOf(phase, capacity);
+        elapsedTicks = Arrays.copyOf(elapsedTicks, capacity);
+        inCombat = Arrays.copyOf(inCombat, capacity);
+        dormantSinceTick = Arrays.copyOf(dormantSinceTick, capacity);
+        lastDormancyCheckTick = Arrays.copyOf(lastDormancyCheckTick, capacity);
+        wakeCatchUpTicks = Arrays.copyOf(wakeCatchUpTicks, capacity);
+    }
+
+    /**
+     * Places a guard in the least occupied phase bucket, starting from its UUID hash
+     * so ties spread across buckets.
+     */
+    private int assignPhase(UUID guardId, int slot) {
+        int start = Math.floorMod(guardId.hashCode(), PHASE_BUCKETS);
+        int best = start;
+        for (int i = 1; i < PHASE_BUCKETS; i++) {
+            int bucket = (start + i) % PHASE_BUCKETS;
+            if (phaseBuckets[bucket].size() < phaseBuckets[best].size()) {
+                best = bucket;
+            }
+        }
+        phaseBuckets[best].add(slot);
+        return best;
+    }
+
+    /**
+     * Checks whether the most recent phase-aligned tick for an interval is newer than
+     * the last run. Guards that were checked late (goal selectors may skip ticks, or the
+     * work budget deferred them) still run once and keep their phase.
+     */
+    private static boolean isDue(int currentTick, int lastTick, int phase, int interval) {
+        if (interval == Integer.MAX_VALUE) {
+            return false;
+        }
+        if (interval <= 0) {
+            return true;
+        }
+        int latestSlot = currentTick - Math.floorMod(currentTick - phase, interval);
+        return latestSlot > lastTick;
+    }
+
+    /**
+     * Calculates the appropriate AI update interval for a guard.
+     */
+    private int calculateUpdateInterval(VillagerEntity guard, int slot) {
+        AdaptiveLodController lod = AdaptiveLodController.get(world);
+
         // Check distance to nearest player
         double distanceToPlayer = getDistanceToNearestPlayer(guard);
 
-        // LOD-based update intervals
-        if (distanceToPlayer < CLOSE_DISTANCE) {
-            return IDLE_UPDATE_INTERVAL;  // Close: Update every 5 ticks
-        } else if (distanceToPlayer < MEDIUM_DISTANCE) {
-            return DISTANT_UPDATE_INTERVAL;  // Medium: Update every 20 ticks
-        } else if (distanceToPlayer < FAR_DISTANCE) {
-            return FAR_UPDATE_INTERVAL;  // Far: Update every 100 ticks
+        // Combat-active guards update every tick (scaled under load)
+        if (inCombat[slot] || guard.getTarget() != null) {
+            inCombat[slot] = true;
+            int interval = lod.scaleInterval(ACTIVE_UPDATE_INTERVAL);
+            if (distanceToPlayer < CLOSE_DISTANCE) {
+                // Fights players can see keep the floor cadence whatever the load
+                interval = Math.min(interval, getCombatFloorInterval());
+            }
+            return interval;
+        }
+
+        // LOD-based update intervals, with bands and intervals scaled to the server load
+        if (distanceToPlayer < lod.scaleDistance(CLOSE_DISTANCE)) {
+            return lod.scaleInterval(IDLE_UPDATE_INTERVAL);  // Close: Update every 5 ticks
+        } else if (distanceToPlayer < lod.scaleDistance(MEDIUM_DISTANCE)) {
+            return lod.scaleInterval(DISTANT_UPDATE_INTERVAL);  // Medium: Update every 20 ticks
+        } else if (distanceToPlayer < lod.scaleDistance(FAR_DISTANCE)) {
+            return lod.scaleInterval(FAR_UPDATE_INTERVAL);  // Far: Update every 100 ticks
         } else {
             return Integer.MAX_VALUE;  // Very far: Suspend updates (chunk likely unloaded)
         }
@@ -183,63 +485,42 @@ public class GuardAIScheduler {
      * Calculates the appropriate threat detection interval for a guard.
      * Threat detection is more expensive than general AI updates.
      */
-    private int calculateThreatDetectionInterval(VillagerEntity guard, GuardUpdateState state) {
+    private int calculateThreatDetectionInterval(VillagerEntity guard, int slot) {
+        AdaptiveLodController lod = AdaptiveLodController.get(world);
+        double distanceToPlayer = getDistanceToNearestPlayer(guard);
+
         // Combat-active guards scan frequently
-        if (state.inCombat || guard.getTarget() != null) {
-            return 10;  // Every 0.5 seconds during combat
+        if (inCombat[slot] || guard.getTarget() != null) {
+            int interval = lod.scaleInterval(10);  // Every 0.5 seconds during combat
+            return distanceToPlayer < CLOSE_DISTANCE ? Math.min(interval, 10) : interval;
         }
 
         // Distance-based detection intervals
-        double distanceToPlayer = getDistanceToNearestPlayer(guard);
-
-        if (distanceToPlayer < CLOSE_DISTANCE) {
-            return 20;  // Every 1 second when close to players
-        } else if (distanceToPlayer < MEDIUM_DISTANCE) {
-            return 40;  // Every 2 seconds at medium distance
-        } else if (distanceToPlayer < FAR_DISTANCE) {
-            return 100;  // Every 5 seconds when far
+        if (distanceToPlayer < lod.scaleDistance(CLOSE_DISTANCE)) {
+            return lod.scaleInterval(20);  // Every 1 second when close to players
+        } else if (distanceToPlayer < lod.scaleDistance(MEDIUM_DISTANCE)) {
+            return lod.scaleInterval(40);  // Every 2 seconds at medium distance
+        } else if (distanceToPlayer < lod.scaleDistance(FAR_DISTANCE)) {
+            return lod.scaleInterval(100);  // Every 5 seconds when far
         } else {
             return Integer.MAX_VALUE;  // Very far: Suspend detection
         }
     }
 
+    private static int getCombatFloorInterval() {
+        return Math.max(1, ModConfig.getInstance().getPerformanceSettings().combat_floor_interval);
+    }
+
     /**
      * Gets the distance from a guard to the nearest player.
-     * Uses squared distance for performance.
+     * Chunk-granularity lookup in the shared {@link PlayerDistanceField}.
      */
     private double getDistanceToNearestPlayer(VillagerEntity guard) {
-        // Use a cached value if available and recent
-        GuardUpdateState state = guardStates.get(guard.getUuid());
-        int currentTick = world.getServer().getTicks();
-
-        if (state != null && state.cachedPlayerDistance >= 0 &&
-            (currentTick - state.playerDistanceCacheTick) < 20) {  // Cache for 1 second
-            return state.cachedPlayerDistance;
-        }
-
-        // Find nearest player efficiently
-        Box searchBox = guard.getBoundingBox().expand(FAR_DISTANCE);
-        List<PlayerEntity> players = world.getEntitiesByClass(
-            PlayerEntity.class,
-            searchBox,
-            player -> !player.isSpectator()
-        );
-
-        double minDistance = Double.MAX_VALUE;
-        for (PlayerEntity player : players) {
-            double distance = guard.squaredDistanceTo(player);
-            if (distance < minDistance) {
-                minDistance = distance;
-            }
-        }
-
-        // Cache the result
-        if (state != null) {
-            state.cachedPlayerDistance = minDistance;
-            state.playerDistanceCacheTick = currentTick;
+        int chunkDistance = PlayerDistanceField.get(world).getChunkDistance(guard);
+        if (chunkDistance == PlayerDistanceField.UNREACHED) {
+            return Double.MAX_VALUE;
         }
-
-        return minDistance;
+        return chunkDistance * 16.0;
     }
 
     /**
@@ -249,27 +530,7 @@ public class GuardAIScheduler {
      * @return The current update interval in ticks
      */
     public int getCurrentUpdateInterval(VillagerEntity guard) {
-        GuardUpdateState state = guardStates.get(guard.getUuid());
-        return state != null ? state.updateInterval : IDLE_UPDATE_INTERVAL;
-    }
-
-    /**
-     * Tracks the update state for individual guards.
-     */
-    private static class GuardUpdateState {
-        int lastUpdateTick;
-        int lastThreatScanTick;
-        int updateInterval;
-        boolean inCombat;
-        int combatStartTick;
-        double cachedPlayerDistance = -1;
-        int playerDistanceCacheTick;
-
-        GuardUpdateState(int currentTick) {
-            this.lastUpdateTick = currentTick;
-            this.lastThreatScanTick = currentTick;
-            this.updateInterval = IDLE_UPDATE_INTERVAL;
-            this.inCombat = false;
-        }
+        int slot = slotsByGuard.getInt(guard.getUuid());
+        return slot != NO_SLOT ? updateInterval[slot] : IDLE_UPDATE_INTERVAL;
     }
 }
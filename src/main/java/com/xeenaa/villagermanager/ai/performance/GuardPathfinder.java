@@ -0,0 +1,62 @@
+package com.xeenaa.villagermanager.ai.performance;
+
+import net.minecraft.entity.ai.pathing.Path;
+import net.minecraft.entity.passive.VillagerEntity;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+
+import java.util.function.Consumer;
+
+/**
+ * Starts non-combat guard movement through the {@link PathFailureCache}.
+ *
+ * <p>Searches between regions that failed recently, or to a destination the guard got
+ * stuck on, are skipped instead of re-running A* to exhaustion. Every search result is
+ * recorded so the backoff stays current.</p>
+ *
+ * @since 1.0.0
+ */
+public final class GuardPathfinder {
+
+    private GuardPathfinder() {
+    }
+
+    /**
+     * Starts moving a guard to a target.
+     *
+     * @param world The server world
+     * @param guard The guard villager
+     * @param target The destination
+     * @param speed Movement speed
+     * @return true if the guard is moving
+     */
+    public static boolean moveTo(ServerWorld world, VillagerEntity guard, BlockPos target, double speed) {
+        return moveTo(world, guard, target, speed, null);
+    }
+
+    /**
+     * Starts moving a guard to a target.
+     *
+     * @param world The server world
+     * @param guard The guard villager
+     * @param target The destination
+     * @param speed Movement speed
+     * @param onPath Receives a copy of the computed path before the guard starts on it (may be null)
+     * @return true if the guard is moving; false if no path was found or the search is
+     *         backing off after recent failures
+     */
+    public static boolean moveTo(ServerWorld world, VillagerEntity guard, BlockPos target, double speed,
+                                 Consumer<Path> onPath) {
+        PathFailureCache failures = PathFailureCache.get(world);
+        if (failures.isBlocked(guard, target)) {
+            return false;
+        }
+
+        Path path = guard.getNavigation().findPathTo(target, 1);
+        failures.recordResult(guard.getBlockPos(), target, path);
+        if (path != null && onPath != null) {
+            onPath.accept(PatrolPathCache.copyOf(path));
+        }
+        return guard.getNavigation().startMovingAlong(path, speed);
+    }
+}
@@ -0,0 +1,204 @@
+package com.xeenaa.villagermanager.ai.performance;
+
+import com.xeenaa.villagermanager.block.ModBlocks;
+import it.unimi.dsi.fastutil.longs.Long2IntMap;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2LongMap;
+import it.unimi.dsi.fastutil.objects.Object2LongOpenHashMap;
+import net.minecraft.entity.passive.VillagerEntity;
+import net.minecraft.registry.entry.RegistryEntry;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.poi.PointOfInterest;
+import net.minecraft.world.poi.PointOfInterestStorage;
+import net.minecraft.world.poi.PointOfInterestType;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Resolves and assigns guard posts through the world's {@link PointOfInterestStorage}.
+ *
+ * <p>Guard posts are registered as the {@link ModBlocks#GUARD_POST_POI} point of interest
+ * type, so the POI storage already indexes them per chunk section. Lookups query it with a
+ * radius instead of probing block states, restricted to chunks that are already loaded
+ * (see {@link GuardWorldAccess}).</p>
+ *
+ * <p>Assignment is load balanced: a guard without a post gets the in-range post with the
+ * fewest assigned guards, the nearest one breaking ties. Assignments last until the guard
+ * is released (unload, death) or its post disappears.</p>
+ *
+ * @since 1.0.0
+ */
+public class GuardPostLocator {
+    private static final Map<String, GuardPostLocator> INSTANCES = new ConcurrentHashMap<>();
+
+    /**
+     * Radius (in blocks) guard posts are searched within.
+     */
+    public static final int SEARCH_RADIUS = 48;
+
+    private static final long NO_POST = Long.MIN_VALUE;
+    private static final Predicate<RegistryEntry<PointOfInterestType>> IS_GUARD_POST =
+        entry -> entry.value() == ModBlocks.GUARD_POST_POI;
+
+    private final ServerWorld world;
+    private final Object2LongMap<UUID> assignments;
+    private final Long2IntMap guardsPerPost;
+
+    /**
+     * Gets or creates the guard post locator for the specified world.
+     *
+     * @param world The server world
+     * @return The locator for this world
+     */
+    public static GuardPostLocator get(ServerWorld world) {
+        return INSTANCES.computeIfAbsent(world.getRegistryKey().getValue().toString(),
+            k -> new GuardPostLocator(world));
+    }
+
+    /**
+     * Clears all locators (for cleanup).
+     */
+    public static void clearAll() {
+        INSTANCES.clear();
+    }
+
+    private GuardPostLocator(ServerWorld world) {
+        this.world = world;
+        this.assignments = new Object2LongOpenHashMap<>();
+        this.assignments.defaultReturnValue(NO_POST);
+        this.guardsPerPost = new Long2IntOpenHashMap();
+    }
+
+    /**
+     * Gets the post assigned to a guard, assigning the least-loaded post in range if the
+     * guard has none (or its post is gone or out of range).
+     *
+     * @param guard The guard villager
+     * @return The assigned post, or null if no guard post is in range
+     */
+    public BlockPos assignPost(VillagerEntity guard) {
+        BlockPos guardPos = guard.getBlockPos();
+        long assigned = assignments.getLong(guard.getUuid());
+        if (assigned != NO_POST) {
+            BlockPos post = BlockPos.fromLong(assigned);
+            if (isGuardPost(post) && post.isWithinDistance(guardPos, SEARCH_RADIUS)) {
+                return post;
+            }
+            release(guard.getUuid());
+        }
+
+        BlockPos best = null;
+        int bestLoad = Integer.MAX_VALUE;
+        double bestDistance = Double.MAX_VALUE;
+
+        // Query loaded chunks only: getInCircle would read unloaded chunks' POI data from disk
+        PointOfInterestStorage storage = world.getPointOfInterestStorage();
+        double maxDistance = (double) SEARCH_RADIUS * SEARCH_RADIUS;
+        int minChunkX = (guardPos.getX() - SEARCH_RADIUS) >> 4;
+        int maxChunkX = (guardPos.getX() + SEARCH_RADIUS) >> 4;
+        int minChunkZ = (guardPos.getZ() - SEARCH_RADIUS) >> 4;
+        int maxChunkZ = (guardPos.getZ() + SEARCH_RADIUS) >> 4;
+        for (int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++) {
+            for (int chunkZ = minChunkZ; chunkZ <= maxChunkZ; chunkZ++) {
+                if (!GuardWorldAccess.isChunkLoaded(world, chunkX, chunkZ)) {
+                    continue;
+                }
+
+                Iterator<PointOfInterest> posts = storage
+                    .getInChunk(IS_GUARD_POST, new ChunkPos(chunkX, chunkZ), PointOfInterestStorage.OccupationStatus.ANY)
+                    .iterator();
+                while (posts.hasNext()) {
+                    BlockPos post = posts.next().getPos();
+                    double distance = post.getSquaredDistance(guardPos);
+                    if (distance > maxDistance) {
+                        continue;
+                    }
+                    int load = guardsPerPost.get(post.asLong());
+                    if (load < bestLoad || (load == bestLoad && distance < bestDistance)) {
+                        best = post;
+                        bestLoad = load;
+                        bestDistance = distance;
+                    }
+                }
+            }
+        }
+
+        if (best != null) {
+            assign(guard.getUuid(), best);
+        }
+        return best;
+    }
+
+    /**
+     * Records a post the guard already claimed (e.g. its job site) as its assignment.
+     *
+     * @param guard The guard villager
+     * @param post The claimed post
+     */
+    public void claimPost(VillagerEntity guard, BlockPos post) {
+        if (assignments.getLong(guard.getUuid()) == post.asLong()) {
+            return;
+        }
+        release(guard.getUuid());
+        assign(guard.getUuid(), post);
+    }
+
+    /**
+     * Gets the post assigned to a guard without searching.
+     *
+     * @param guardId The guard UUID
+     * @return The assigned post, or null if none
+     */
+    public BlockPos getAssignedPost(UUID guardId) {
+        long assigned = assignments.getLong(guardId);
+        return assigned != NO_POST ? BlockPos.fromLong(assigned) : null;
+    }
+
+    /**
+     * Releases a guard's post assignment.
+     *
+     * @param guardId The guard UUID
+     */
+    public void release(UUID guardId) {
+        long post = assignments.removeLong(guardId);
+        if (post == NO_POST) {
+            return;
+        }
+
+        int load = guardsPerPost.get(post) - 1;
+        if (load > 0) {
+            guardsPerPost.put(post, load);
+        } else {
+            guardsPerPost.remove(post);
+        }
+    }
+
+    /**
+     * Gets the number of guards assigned to a post.
+     *
+     * @param post The post position
+     * @return Number of assigned guards
+     */
+    public int getAssignedCount(BlockPos post) {
+        return guardsPerPost.get(post.asLong());
+    }
+
+    private void assign(UUID guardId, BlockPos post) {
+        assignments.put(guardId, post.asLong());
+        guardsPerPost.put(post.asLong(), guardsPerPost.get(post.asLong()) + 1);
+    }
+
+    private boolean isGuardPost(BlockPos pos) {
+        // A post in an unloaded chunk is unknown, not gone: keep the assignment
+        if (!GuardWorldAccess.isLoaded(world, pos)) {
+            return true;
+        }
+        return world.getPointOfInterestStorage().getType(pos).filter(IS_GUARD_POST).isPresent();
+    }
+}
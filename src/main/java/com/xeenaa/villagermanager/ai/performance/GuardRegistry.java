@@ -0,0 +1,210 @@
+package com.xeenaa.villagermanager.ai.performance;
+
+import com.xeenaa.villagermanager.profession.ModProfessions;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Reference2LongMap;
+import it.unimi.dsi.fastutil.objects.Reference2LongOpenHashMap;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.passive.VillagerEntity;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.Box;
+import net.minecraft.util.math.ChunkPos;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Per-world registry of loaded guard villagers, bucketed in a chunk-column spatial hash.
+ *
+ * <p>Replaces {@code getEntitiesByClass(VillagerEntity.class, box, isGuard)} queries, which
+ * visit (and compare profession ids for) every villager in the box. The registry only
+ * holds guards and is kept current from:</p>
+ * <ul>
+ *   <li>Entity load/unload events</li>
+ *   <li>Profession changes (villagers becoming or leaving the guard profession)</li>
+ *   <li>A per-tick pass moving guards that crossed into a new chunk column</li>
+ * </ul>
+ *
+ * @since 1.0.0
+ */
+public class GuardRegistry {
+    private static final Map<String, GuardRegistry> INSTANCES = new ConcurrentHashMap<>();
+
+    private final ServerWorld world;
+    private final Reference2LongMap<VillagerEntity> guardCells;
+    private final Long2ObjectMap<List<VillagerEntity>> cellBuckets;
+
+    /**
+     * Gets or creates the guard registry for the specified world.
+     *
+     * @param world The server world
+     * @return The registry for this world
+     */
+    public static GuardRegistry get(ServerWorld world) {
+        return INSTANCES.computeIfAbsent(world.getRegistryKey().getValue().toString(),
+            k -> new GuardRegistry(world));
+    }
+
+    /**
+     * Clears all registries (for cleanup).
+     */
+    public static void clearAll() {
+        INSTANCES.clear();
+    }
+
+    /**
+     * Checks whether a villager currently has the guard profession.
+     *
+     * @param villager The villager to check
+     * @return true if the villager is a guard
+     */
+    public static boolean isGuard(VillagerEntity villager) {
+        return villager.getVillagerData().getProfession() == ModProfessions.GUARD;
+    }
+
+    private GuardRegistry(ServerWorld world) {
+        this.world = world;
+        this.guardCells = new Reference2LongOpenHashMap<>();
+        this.cellBuckets = new Long2ObjectOpenHashMap<>();
+    }
+
+    /**
+     * Registers an entity if it is a guard.
+     *
+     * @param entity The entity that was loaded into the world
+     */
+    public void onEntityLoad(Entity entity) {
+        if (entity instanceof VillagerEntity villager && isGuard(villager)) {
+            add(villager);
+        }
+    }
+
+    /**
+     * Unregisters an entity that was unloaded or removed from the world.
+     *
+     * @param entity The entity that was unloaded
+     */
+    public void onEntityUnload(Entity entity) {
+        if (entity instanceof VillagerEntity villager) {
+            remove(villager);
+        }
+    }
+
+    /**
+     * Updates registration after a villager's profession changed.
+     * Villagers that are not in the world yet (e.g. still loading from NBT) are
+     * registered by {@link #onEntityLoad(Entity)} instead.
+     *
+     * @param villager The villager whose profession changed
+     */
+    public void onProfessionChanged(VillagerEntity villager) {
+        if (isGuard(villager) && world.getEntityById(villager.getId()) == villager) {
+            add(villager);
+        } else {
+            remove(villager);
+        }
+    }
+
+    /**
+     * Moves guards that crossed into a new chunk column. Called once per server tick.
+     */
+    public void tick() {
+        // Collect first; re-bucketing while iterating would modify the map
+        List<VillagerEntity> moved = null;
+        for (Reference2LongMap.Entry<VillagerEntity> entry : guardCells.reference2LongEntrySet()) {
+            if (cellOf(entry.getKey()) != entry.getLongValue()) {
+                if (moved == null) {
+                    moved = new ArrayList<>();
+                }
+                moved.add(entry.getKey());
+            }
+        }
+
+        if (moved != null) {
+            for (VillagerEntity guard : moved) {
+                remove(guard);
+                add(guard);
+            }
+        }
+    }
+
+    /**
+     * Gets all registered guards whose bounding box intersects a box.
+     *
+     * @param box The query box
+     * @param filter Additional filter applied to intersecting guards
+     * @return Mutable list of matching guards
+     */
+    public List<VillagerEntity> getGuardsInBox(Box box, Predicate<? super VillagerEntity> filter) {
+        List<VillagerEntity> result = new ArrayList<>();
+
+        // Pad by a block so guards standing on a column edge are not missed
+        int minCellX = ((int) Math.floor(box.minX) - 1) >> 4;
+        int minCellZ = ((int) Math.floor(box.minZ) - 1) >> 4;
+        int maxCellX = ((int) Math.floor(box.maxX) + 1) >> 4;
+        int maxCellZ = ((int) Math.floor(box.maxZ) + 1) >> 4;
+
+        for (int cx = minCellX; cx <= maxCellX; cx++) {
+            for (int cz = minCellZ; cz <= maxCellZ; cz++) {
+                List<VillagerEntity> bucket = cellBuckets.get(ChunkPos.toLong(cx, cz));
+                if (bucket == null) {
+                    continue;
+                }
+                for (VillagerEntity guard : bucket) {
+                    if (guard.isAlive() && guard.getBoundingBox().intersects(box) && filter.test(guard)) {
+                        result.add(guard);
+                    }
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Gets the number of registered guards in this world.
+     *
+     * @return Number of loaded guards
+     */
+    public int getGuardCount() {
+        return guardCells.size();
+    }
+
+    private void add(VillagerEntity guard) {
+        if (guardCells.containsKey(guard)) {
+            return;
+        }
+
+        long cell = cellOf(guard);
+        guardCells.put(guard, cell);
+        List<VillagerEntity> bucket = cellBuckets.get(cell);
+        if (bucket == null) {
+            bucket = new ArrayList<>(4);
+            cellBuckets.put(cell, bucket);
+        }
+        bucket.add(guard);
+    }
+
+    private void remove(VillagerEntity guard) {
+        if (!guardCells.containsKey(guard)) {
+            return;
+        }
+
+        long cell = guardCells.removeLong(guard);
+        List<VillagerEntity> bucket = cellBuckets.get(cell);
+        if (bucket != null) {
+            bucket.remove(guard);
+            if (bucket.isEmpty()) {
+                cellBuckets.remove(cell);
+            }
+        }
+    }
+
+    private static long cellOf(Entity entity) {
+        return ChunkPos.toLong(entity.getBlockX() >> 4, entity.getBlockZ() >> 4);
+    }
+}
@@ -0,0 +1,299 @@
+package com.xeenaa.villagermanager.ai.performance;
+
+import com.xeenaa.villagermanager.config.ModConfig;
+import net.minecraft.entity.passive.VillagerEntity;
+import net.minecraft.server.world.ServerWorld;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-tick time budget for expensive guard AI work (threat scans and target searches).
+ *
+ * <p>Guards that are due for work ask for a permit. Work runs right away while the
+ * tick's budget has room and nobody with higher priority is waiting; otherwise the
+ * request is queued. At the start of every tick the queue is served in priority
+ * order until the budget is reserved:</p>
+ * <ol>
+ *   <li>Combat guards first</li>
+ *   <li>Then by staleness (longest waiting first), which round-robins idle guards</li>
+ * </ol>
+ * <p>Requests that do not fit roll over to the next tick, so total guard AI cost per
+ * tick stays capped regardless of guard count.</p>
+ *
+ * <p>Guards only ask on their scheduled AI ticks, which for idle guards may be 5 to 100+
+ * ticks apart. Each request carries that interval: queued work is only granted on ticks
+ * when its guard will ask again, a grant is kept until the guard's next scheduled ticks,
+ * and a grant that still goes unused returns to the queue with its original wait time.</p>
+ *
+ * <p>Costs are measured by the callers ({@link #recordCost(WorkType, long)}) and
+ * tracked as a moving average per work type to estimate how much work fits.</p>
+ *
+ * @since 1.0.0
+ */
+public class GuardWorkBudget {
+    private static final Map<String, GuardWorkBudget> INSTANCES = new ConcurrentHashMap<>();
+
+    /**
+     * Kinds of budgeted guard work.
+     */
+    public enum WorkType {
+        THREAT_SCAN,
+        TARGET_SEARCH
+    }
+
+    private static final long INITIAL_COST_ESTIMATE_NANOS = 50_000; // 50 microseconds
+    private static final double COST_SMOOTHING = 0.1;
+    private static final int GRANT_LIFETIME_INTERVALS = 2; // Survive one missed scheduled tick (e.g. LOD rescaling)
+    private static final int REQUEST_EXPIRY = 100;         // Drop requests not refreshed for 5 seconds (or 2 intervals)
+
+    private final ServerWorld world;
+    private final Map<WorkKey, WorkRequest> waiting;
+    private final Map<WorkKey, WorkRequest> granted;
+    private final long[] costEstimates;
+    private long spentNanos;
+    private long reservedNanos;
+    private int waitingCombatCount;
+    private int lastPlanTick = -1;
+
+    /**
+     * Gets or creates the work budget for the specified world.
+     *
+     * @param world The server world
+     * @return The work budget for this world
+     */
+    public static GuardWorkBudget get(ServerWorld world) {
+        return INSTANCES.computeIfAbsent(world.getRegistryKey().getValue().toString(),
+            k -> new GuardWorkBudget(world));
+    }
+
+    /**
+     * Clears all budgets (for cleanup).
+     */
+    public static void clearAll() {
+        INSTANCES.clear();
+    }
+
+    private GuardWorkBudget(ServerWorld world) {
+        this.world = world;
+        this.waiting = new HashMap<>();
+        this.granted = new HashMap<>();
+        this.costEstimates = new long[WorkType.values().length];
+        Arrays.fill(costEstimates, INITIAL_COST_ESTIMATE_NANOS);
+    }
+
+    /**
+     * Asks for permission to run a unit of work for a guard this tick.
+     * Callers should only ask when the guard is actually due for the work, and keep
+     * asking on later ticks while it is denied.
+     *
+     * @param guard The guard villager
+     * @param type The kind of work
+     * @param inCombat Whether the guard is in combat (served first)
+     * @param retryInterval Ticks until the guard's next scheduled AI tick, when it will ask again
+     * @return true if the work may run now
+     */
+    public boolean tryAcquire(VillagerEntity guard, WorkType type, boolean inCombat, int retryInterval) {
+        long budgetNanos = getBudgetNanos();
+        if (budgetNanos <= 0) {
+            return true; // Budgeting disabled
+        }
+
+        planIfNeeded();
+
+        WorkKey key = new WorkKey(guard.getUuid(), type);
+        WorkRequest grant = granted.remove(key);
+        if (grant != null) {
+            if (grant.reserved) {
+                reservedNanos = Math.max(0, reservedNanos - costEstimates[type.ordinal()]);
+            }
+            return true;
+        }
+
+        int currentTick = world.getServer().getTicks();
+        int interval = Math.max(1, retryInterval);
+        WorkRequest request = waiting.get(key);
+
+        // Run right away if it fits and nothing more urgent is queued
+        boolean fits = spentNanos + reservedNanos + costEstimates[type.ordinal()] <= budgetNanos;
+        boolean nothingAhead = inCombat
+            ? waitingCombatCount - (request != null && request.inCombat ? 1 : 0) == 0
+            : waiting.size() - (request != null ? 1 : 0) == 0;
+        if (fits && nothingAhead) {
+            if (request != null) {
+                removeWaiting(key);
+            }
+            return true;
+        }
+
+        // Queue (or refresh) the request for a later tick
+        if (request == null) {
+            waiting.put(key, new WorkRequest(guard, type, inCombat, currentTick, interval));
+            if (inCombat) {
+                waitingCombatCount++;
+            }
+        } else {
+            if (request.inCombat != inCombat) {
+                waitingCombatCount += inCombat ? 1 : -1;
+                request.inCombat = inCombat;
+            }
+            request.lastRequestTick = currentTick;
+            request.retryInterval = interval;
+        }
+        return false;
+    }
+
+    /**
+     * Records the measured cost of a unit of work that ran this tick.
+     *
+     * @param type The kind of work
+     * @param nanos Elapsed time in nanoseconds
+     */
+    public void recordCost(WorkType type, long nanos) {
+        planIfNeeded();
+        spentNanos += nanos;
+
+        int index = type.ordinal();
+        costEstimates[index] = (long) (costEstimates[index] * (1.0 - COST_SMOOTHING) + nanos * COST_SMOOTHING);
+    }
+
+    /**
+     * Gets the number of queued requests waiting for budget.
+     *
+     * @return Number of waiting requests
+     */
+    public int getWaitingCount() {
+        return waiting.size();
+    }
+
+    /**
+     * Starts a new tick: resets spending and grants queued work in priority order.
+     */
+    private void planIfNeeded() {
+        int currentTick = world.getServer().getTicks();
+        if (currentTick == lastPlanTick) {
+            return;
+        }
+        lastPlanTick = currentTick;
+        spentNanos = 0;
+
+        // Unused grants go back to the queue, keeping their wait time; the rest only
+        // reserve budget on ticks their guard is scheduled to ask
+        reservedNanos = 0;
+        Iterator<WorkRequest> grants = granted.values().iterator();
+        while (grants.hasNext()) {
+            WorkRequest grant = grants.next();
+            if (currentTick - grant.grantTick > grant.retryInterval * GRANT_LIFETIME_INTERVALS) {
+                grants.remove();
+                waiting.put(new WorkKey(grant.guard.getUuid(), grant.type), grant);
+                if (grant.inCombat) {
+                    waitingCombatCount++;
+                }
+                continue;
+            }
+            grant.reserved = grant.isScheduledAt(currentTick);
+            if (grant.reserved) {
+                reservedNanos += costEstimates[grant.type.ordinal()];
+            }
+        }
+
+        if (waiting.isEmpty()) {
+            return;
+        }
+
+        List<WorkRequest> queue = new ArrayList<>(waiting.size());
+        Iterator<WorkRequest> iterator = waiting.values().iterator();
+        while (iterator.hasNext()) {
+            WorkRequest request = iterator.next();
+            int expiry = Math.max(REQUEST_EXPIRY, request.retryInterval * GRANT_LIFETIME_INTERVALS);
+            if (request.guard.isRemoved() || currentTick - request.lastRequestTick > expiry) {
+                if (request.inCombat) {
+                    waitingCombatCount--;
+                }
+                iterator.remove();
+                continue;
+            }
+            // Guards that will not ask this tick keep their place for a tick they will
+            if (request.isScheduledAt(currentTick)) {
+                queue.add(request);
+            }
+        }
+
+        // Combat first, then the longest waiting
+        queue.sort((a, b) -> {
+            if (a.inCombat != b.inCombat) {
+                return a.inCombat ? -1 : 1;
+            }
+            return Integer.compare(a.firstRequestTick, b.firstRequestTick);
+        });
+
+        long budgetNanos = getBudgetNanos();
+        int grantedThisTick = 0;
+        for (WorkRequest request : queue) {
+            long cost = costEstimates[request.type.ordinal()];
+            // Always serve at least one request so work never stalls on a bad estimate
+            if (reservedNanos + cost > budgetNanos && grantedThisTick > 0) {
+                break;
+            }
+
+            WorkKey key = new WorkKey(request.guard.getUuid(), request.type);
+            removeWaiting(key);
+            request.grantTick = currentTick;
+            request.reserved = true;
+            granted.put(key, request);
+            reservedNanos += cost;
+            grantedThisTick++;
+        }
+    }
+
+    private void removeWaiting(WorkKey key) {
+        WorkRequest removed = waiting.remove(key);
+        if (removed != null && removed.inCombat) {
+            waitingCombatCount--;
+        }
+    }
+
+    private static long getBudgetNanos() {
+        return ModConfig.getInstance().getPerformanceSettings().guard_ai_budget_micros * 1000L;
+    }
+
+    private record WorkKey(UUID guardId, WorkType type) {
+    }
+
+    /**
+     * A guard waiting for budget, or holding a grant it has not used yet.
+     */
+    private static class WorkRequest {
+        final VillagerEntity guard;
+        final WorkType type;
+        final int firstRequestTick;
+        boolean inCombat;
+        int lastRequestTick;
+        int retryInterval;
+        int grantTick;
+        boolean reserved;
+
+        WorkRequest(VillagerEntity guard, WorkType type, boolean inCombat, int currentTick, int retryInterval) {
+            this.guard = guard;
+            this.type = type;
+            this.inCombat = inCombat;
+            this.firstRequestTick = currentTick;
+            this.lastRequestTick = currentTick;
+            this.retryInterval = retryInterval;
+        }
+
+        /**
+         * Checks whether the guard is scheduled to ask again on a tick, assuming it keeps
+         * the cadence of its last request.
+         */
+        boolean isScheduledAt(int tick) {
+            return Math.floorMod(tick - lastRequestTick, retryInterval) == 0;
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.xeenaa.villagermanager.ai.performance;
+
+import com.xeenaa.villagermanager.block.GuardPostBlock;
+import net.minecraft.block.BlockState;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.hit.BlockHitResult;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.MathHelper;
+import net.minecraft.util.math.Vec3d;
+import net.minecraft.world.Heightmap;
+import net.minecraft.world.RaycastContext;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.WorldChunk;
+
+/**
+ * Chunk-load-safe block access for guard AI.
+ *
+ * <p>{@link World#getBlockState(BlockPos)} loads (or generates) the chunk it reads from,
+ * synchronously on the server thread. Guard AI probes positions up to dozens of blocks
+ * away, which at the edge of a village can reach chunks nobody is standing in. All AI
+ * block queries go through this class instead: it only reads chunks that are already
+ * fully loaded, looked up via {@link net.minecraft.world.chunk.ChunkManager#getWorldChunk(int, int)},
+ * which never loads. Anything else is reported as unknown, and each rejected read is
+ * counted in the world's {@link PerformanceMonitor}; plain loaded checks are not reads
+ * and are not counted. Raycasts go through {@link #raycast(World, RaycastContext)} for
+ * the same reason.</p>
+ *
+ * @since 1.0.0
+ */
+public final class GuardWorldAccess {
+    /**
+     * Height returned by {@link #getTopY(World, Heightmap.Type, int, int)} for unknown columns.
+     */
+    public static final int UNKNOWN_HEIGHT = Integer.MIN_VALUE;
+
+    private GuardWorldAccess() {
+    }
+
+    /**
+     * Gets a chunk if it is already loaded, without loading it.
+     *
+     * @param world The world
+     * @param chunkX Chunk X
+     * @param chunkZ Chunk Z
+     * @return The loaded chunk, or null if it is not fully loaded
+     */
+    public static WorldChunk getLoadedChunk(World world, int chunkX, int chunkZ) {
+        WorldChunk chunk = world.getChunkManager().getWorldChunk(chunkX, chunkZ);
+        if (chunk == null) {
+            recordRejectedRead(world);
+        }
+        return chunk;
+    }
+
+    /**
+     * Checks whether a chunk is loaded, without loading it. Not a read, so it is
+     * never counted as rejected.
+     *
+     * @param world The world
+     * @param chunkX Chunk X
+     * @param chunkZ Chunk Z
+     * @return true if the chunk can be read
+     */
+    public static boolean isChunkLoaded(World world, int chunkX, int chunkZ) {
+        return world.getChunkManager().getWorldChunk(chunkX, chunkZ) != null;
+    }
+
+    /**
+     * Checks whether the chunk containing a position is loaded, without loading it.
+     * Not a read, so it is never counted as rejected.
+     *
+     * @param world The world
+     * @param pos The position
+     * @return true if the position can be read
+     */
+    public static boolean isLoaded(World world, BlockPos pos) {
+        return isChunkLoaded(world, pos.getX() >> 4, pos.getZ() >> 4);
+    }
+
+    /**
+     * Gets a block state from a loaded chunk.
+     *
+     * @param world The world
+     * @param pos The position
+     * @return The block state, or null if the chunk is not loaded or the position is
+     *         outside the build limit
+     */
+    public static BlockState getBlockState(World world, BlockPos pos) {
+        if (!world.isInBuildLimit(pos)) {
+            return null;
+        }
+        WorldChunk chunk = getLoadedChunk(world, pos.getX() >> 4, pos.getZ() >> 4);
+        return chunk != null ? chunk.getBlockState(pos) : null;
+    }
+
+    /**
+     * Gets the height of a column from a loaded chunk's heightmap, like
+     * {@link World#getTopY(Heightmap.Type, int, int)}.
+     *
+     * @param world The world
+     * @param type The heightmap to sample
+     * @param x Column X
+     * @param z Column Z
+     * @return The first Y above the heightmap surface, or {@link #UNKNOWN_HEIGHT} if the
+     *         chunk is not loaded
+     */
+    public static int getTopY(World world, Heightmap.Type type, int x, int z) {
+        WorldChunk chunk = getLoadedChunk(world, x >> 4, z >> 4);
+        return chunk != null ? chunk.sampleHeightmap(type, x & 15, z & 15) + 1 : UNKNOWN_HEIGHT;
+    }
+
+    /**
+     * Checks whether a loaded position holds a guard post.
+     *
+     * @param world The world
+     * @param pos The position
+     * @return true if the block is a guard post; false if it is not or is unknown
+     */
+    public static boolean isGuardPost(World world, BlockPos pos) {
+        BlockState state = getBlockState(world, pos);
+        return state != null && state.getBlock() instanceof GuardPostBlock;
+    }
+
+    /**
+     * Raycasts through loaded chunks only, like {@link World#raycast(RaycastContext)}.
+     * Every chunk the ray's bounding box covers must be loaded; the check is cheap for the
+     * short rays guard AI casts.
+     *
+     * @param world The world
+     * @param context The raycast
+     * @return The hit result, or null if the ray crosses a chunk that is not loaded
+     */
+    public static BlockHitResult raycast(World world, RaycastContext context) {
+        Vec3d start = context.getStart();
+        Vec3d end = context.getEnd();
+        int minChunkX = MathHelper.floor(Math.min(start.x, end.x)) >> 4;
+        int maxChunkX = MathHelper.floor(Math.max(start.x, end.x)) >> 4;
+        int minChunkZ = MathHelper.floor(Math.min(start.z, end.z)) >> 4;
+        int maxChunkZ = MathHelper.floor(Math.max(start.z, end.z)) >> 4;
+        for (int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++) {
+            for (int chunkZ = minChunkZ; chunkZ <= maxChunkZ; chunkZ++) {
+                if (!isChunkLoaded(world, chunkX, chunkZ)) {
+                    recordRejectedRead(world);
+                    return null;
+                }
+            }
+        }
+        return world.raycast(context);
+    }
+
+    private static void recordRejectedRead(World world) {
+        if (world instanceof ServerWorld serverWorld) {
+            PerformanceMonitor.get(serverWorld).recordRejectedWorldRead();
+        }
+    }
+}
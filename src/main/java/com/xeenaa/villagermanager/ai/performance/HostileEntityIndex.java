@@ -0,0 +1,313 @@
+package com.xeenaa.villagermanager.ai.performance;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.mob.HostileEntity;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.Box;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.util.math.MathHelper;
+import net.minecraft.util.math.Vec3d;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Per-world spatial index of loaded hostile mobs shared by all guard queries.
+ *
+ * <p>Instead of every guard running its own {@code getEntitiesByClass(HostileEntity.class, ...)}
+ * box query, hostiles are tracked through entity load/unload events and bucketed by chunk
+ * section once per server tick. A guard lookup then only visits the sections overlapping
+ * its query range, so its cost is proportional to the hostiles near it.</p>
+ *
+ * <p>Range queries are cylindrical: a horizontal radius plus a vertical clamp, so mobs in
+ * caves far below a guard never enter the candidate set.</p>
+ *
+ * <p>The index is rebuilt lazily on the first query of each tick, so worlds without active
+ * guards pay nothing beyond the load/unload bookkeeping.</p>
+ *
+ * @since 1.0.0
+ */
+public class HostileEntityIndex {
+    private static final Map<String, HostileEntityIndex> INSTANCES = new ConcurrentHashMap<>();
+
+    /**
+     * Default vertical reach for guard queries (blocks above or below the guard).
+     */
+    public static final double DEFAULT_VERTICAL_RANGE = 12.0;
+
+    private final ServerWorld world;
+    private final Set<HostileEntity> loadedHostiles;
+    private final Long2ObjectMap<List<HostileEntity>> sectionBuckets;
+    private int lastBuildTick = -1;
+
+    /**
+     * Gets or creates the hostile index for the specified world.
+     *
+     * @param world The server world
+     * @return The hostile index for this world
+     */
+    public static HostileEntityIndex get(ServerWorld world) {
+        return INSTANCES.computeIfAbsent(world.getRegistryKey().getValue().toString(),
+            k -> new HostileEntityIndex(world));
+    }
+
+    /**
+     * Clears all indexes (for cleanup).
+     */
+    public static void clearAll() {
+        INSTANCES.clear();
+    }
+
+    private HostileEntityIndex(ServerWorld world) {
+        this.world = world;
+        this.loadedHostiles = new ReferenceOpenHashSet<>();
+        this.sectionBuckets = new Long2ObjectOpenHashMap<>();
+    }
+
+    /**
+     * Starts tracking an entity if it is a hostile mob.
+     *
+     * @param entity The entity that was loaded into the world
+     */
+    public void onEntityLoad(Entity entity) {
+        if (entity instanceof HostileEntity hostile) {
+            loadedHostiles.add(hostile);
+        }
+    }
+
+    /**
+     * Stops tracking an entity that was unloaded or removed from the world.
+     *
+     * @param entity The entity that was unloaded
+     */
+    public void onEntityUnload(Entity entity) {
+        if (entity instanceof HostileEntity hostile) {
+            loadedHostiles.remove(hostile);
+        }
+    }
+
+    /**
+     * Gets all living hostiles within a cylindrical range of a position.
+     *
+     * @param center The query center
+     * @param horizontalRange Horizontal radius in blocks
+     * @param verticalRange Maximum vertical offset in blocks
+     * @return Mutable list of matching hostiles (unsorted)
+     */
+    public List<HostileEntity> getHostilesInRange(Vec3d center, double horizontalRange, double verticalRange) {
+        return getHostilesInRange(center, horizontalRange, verticalRange, hostile -> true);
+    }
+
+    /**
+     * Gets all living hostiles within a cylindrical range of a position that match a filter.
+     * The filter is only evaluated for hostiles already inside the range.
+     *
+     * @param center The query center
+     * @param horizontalRange Horizontal radius in blocks
+     * @param verticalRange Maximum vertical offset in blocks
+     * @param filter Additional filter applied to in-range candidates
+     * @return Mutable list of matching hostiles (unsorted)
+     */
+    public List<HostileEntity> getHostilesInRange(Vec3d center, double horizontalRange, double verticalRange,
+                                                  Predicate<? super HostileEntity> filter) {
+        List<HostileEntity> result = new ArrayList<>();
+        double horizontalRangeSq = horizontalRange * horizontalRange;
+
+        forEachCandidate(center.x - horizontalRange, center.y - verticalRange, center.z - horizontalRange,
+            center.x + horizontalRange, center.y + verticalRange, center.z + horizontalRange, hostile -> {
+                double dx = hostile.getX() - center.x;
+                double dz = hostile.getZ() - center.z;
+                if (dx * dx + dz * dz > horizontalRangeSq) {
+                    return;
+                }
+                if (Math.abs(hostile.getY() - center.y) > verticalRange) {
+                    return;
+                }
+                if (filter.test(hostile)) {
+                    result.add(hostile);
+                }
+            });
+
+        return result;
+    }
+
+    /**
+     * Gets all living hostiles whose bounding box intersects the given box.
+     *
+     * @param box The query box
+     * @param filter Additional filter applied to intersecting candidates
+     * @return Mutable list of matching hostiles (unsorted)
+     */
+    public List<HostileEntity> getHostilesInBox(Box box, Predicate<? super HostileEntity> filter) {
+        List<HostileEntity> result = new ArrayList<>();
+
+        // Expand by a couple of blocks so mobs whose position sits just outside a section
+        // boundary but whose hitbox crosses it are still considered
+        forEachCandidate(box.minX - 2.0, box.minY - 2.0, box.minZ - 2.0,
+            box.maxX + 2.0, box.maxY + 2.0, box.maxZ + 2.0, hostile -> {
+                if (hostile.getBoundingBox().intersects(box) && filter.test(hostile)) {
+                    result.add(hostile);
+                }
+            });
+
+        return result;
+    }
+
+    /**
+     * Checks whether any living hostile within a cylindrical range matches a filter.
+     * Stops at the first match.
+     *
+     * @param center The query center
+     * @param horizontalRange Horizontal radius in blocks
+     * @param verticalRange Maximum vertical offset in blocks
+     * @param filter Filter applied to in-range candidates
+     * @return true if at least one hostile matches
+     */
+    public boolean anyHostileInRange(Vec3d center, double horizontalRange, double verticalRange,
+                                     Predicate<? super HostileEntity> filter) {
+        ensureBuilt();
+        double horizontalRangeSq = horizontalRange * horizontalRange;
+
+        int minSectionX = ChunkSectionPos.getSectionCoord(MathHelper.floor(center.x - horizontalRange));
+        int minSectionY = ChunkSectionPos.getSectionCoord(MathHelper.floor(center.y - verticalRange));
+        int minSectionZ = ChunkSectionPos.getSectionCoord(MathHelper.floor(center.z - horizontalRange));
+        int maxSectionX = ChunkSectionPos.getSectionCoord(MathHelper.floor(center.x + horizontalRange));
+        int maxSectionY = ChunkSectionPos.getSectionCoord(MathHelper.floor(center.y + verticalRange));
+        int maxSectionZ = ChunkSectionPos.getSectionCoord(MathHelper.floor(center.z + horizontalRange));
+
+        for (int sx = minSectionX; sx <= maxSectionX; sx++) {
+            for (int sz = minSectionZ; sz <= maxSectionZ; sz++) {
+                for (int sy = minSectionY; sy <= maxSectionY; sy++) {
+                    List<HostileEntity> bucket = sectionBuckets.get(ChunkSectionPos.asLong(sx, sy, sz));
+                    if (bucket == null) {
+                        continue;
+                    }
+                    for (HostileEntity hostile : bucket) {
+                        double dx = hostile.getX() - center.x;
+                        double dz = hostile.getZ() - center.z;
+                        if (hostile.isAlive() &&
+                            dx * dx + dz * dz <= horizontalRangeSq &&
+                            Math.abs(hostile.getY() - center.y) <= verticalRange &&
+                            filter.test(hostile)) {
+                            return true;
+                        }
+                    }
+                }
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Visits every living hostile in the index for the current tick.
+     *
+     * @param visitor Callback for each hostile
+     */
+    public void forEachHostile(Consumer<? super HostileEntity> visitor) {
+        ensureBuilt();
+
+        for (List<HostileEntity> bucket : sectionBuckets.values()) {
+            for (HostileEntity hostile : bucket) {
+                if (hostile.isAlive()) {
+                    visitor.accept(hostile);
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the number of hostiles currently tracked in this world.
+     *
+     * @return Number of loaded hostiles
+     */
+    public int getTrackedHostileCount() {
+        return loadedHostiles.size();
+    }
+
+    /**
+     * Visits every indexed hostile in the chunk sections overlapping the given bounds.
+     */
+    private void forEachCandidate(double minX, double minY, double minZ,
+                                  double maxX, double maxY, double maxZ,
+                                  Consumer<HostileEntity> visitor) {
+        ensureBuilt();
+
+        if (sectionBuckets.isEmpty()) {
+            return;
+        }
+
+        int minSectionX = ChunkSectionPos.getSectionCoord(MathHelper.floor(minX));
+        int minSectionY = ChunkSectionPos.getSectionCoord(MathHelper.floor(minY));
+        int minSectionZ = ChunkSectionPos.getSectionCoord(MathHelper.floor(minZ));
+        int maxSectionX = ChunkSectionPos.getSectionCoord(MathHelper.floor(maxX));
+        int maxSectionY = ChunkSectionPos.getSectionCoord(MathHelper.floor(maxY));
+        int maxSectionZ = ChunkSectionPos.getSectionCoord(MathHelper.floor(maxZ));
+
+        for (int sx = minSectionX; sx <= maxSectionX; sx++) {
+            for (int sz = minSectionZ; sz <= maxSectionZ; sz++) {
+                for (int sy = minSectionY; sy <= maxSectionY; sy++) {
+                    List<HostileEntity> bucket = sectionBuckets.get(ChunkSectionPos.asLong(sx, sy, sz));
+                    if (bucket == null) {
+                        continue;
+                    }
+                    for (HostileEntity hostile : bucket) {
+                        // Mobs can die between the rebuild and the query within a tick
+                        if (hostile.isAlive()) {
+                            visitor.accept(hostile);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Rebuilds the section buckets if they were last built on an earlier tick.
+     */
+    private void ensureBuilt() {
+        int currentTick = world.getServer().getTicks();
+        if (currentTick == lastBuildTick) {
+            return;
+        }
+        lastBuildTick = currentTick;
+
+        sectionBuckets.clear();
+
+        Iterator<HostileEntity> iterator = loadedHostiles.iterator();
+        while (iterator.hasNext()) {
+            HostileEntity hostile = iterator.next();
+
+            // Drop entities that were removed without an unload callback reaching us
+            if (hostile.isRemoved()) {
+                iterator.remove();
+                continue;
+            }
+
+            if (!hostile.isAlive()) {
+                continue;
+            }
+
+            long sectionKey = ChunkSectionPos.asLong(
+                ChunkSectionPos.getSectionCoord(hostile.getBlockX()),
+                ChunkSectionPos.getSectionCoord(hostile.getBlockY()),
+                ChunkSectionPos.getSectionCoord(hostile.getBlockZ()));
+
+            List<HostileEntity> bucket = sectionBuckets.get(sectionKey);
+            if (bucket == null) {
+                bucket = new ArrayList<>();
+                sectionBuckets.put(sectionKey, bucket);
+            }
+            bucket.add(hostile);
+        }
+    }
+}
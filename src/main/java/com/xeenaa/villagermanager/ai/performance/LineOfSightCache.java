@@ -0,0 +1,157 @@
+package com.xeenaa.villagermanager.ai.performance;
+
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.LivingEntity;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.util.math.Vec3d;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * World-level cache of line-of-sight raycast results shared by all guards.
+ *
+ * <p>Results are keyed by the observer and target eye block positions, so every guard
+ * (or hostile) looking from the same block at the same block reuses one raycast.
+ * Entries expire after {@link #TTL_TICKS} and are invalidated early when any chunk
+ * section the ray passes through has a block change (see {@link BlockChangeTracker}).</p>
+ *
+ * <p>Misses fall back to {@link LivingEntity#canSee(Entity)}, so cached results have
+ * vanilla semantics.</p>
+ *
+ * @since 1.0.0
+ */
+public class LineOfSightCache {
+    private static final Map<String, LineOfSightCache> INSTANCES = new ConcurrentHashMap<>();
+
+    /**
+     * How long (in ticks) a cached result stays valid without block changes.
+     */
+    public static final int TTL_TICKS = 10;
+
+    private static final int CLEANUP_INTERVAL = 100; // 5 seconds
+    private static final double SECTION_SAMPLE_STEP = 2.0;
+
+    private final ServerWorld world;
+    private final Map<SightKey, SightEntry> entries;
+    private int lastCleanupTick;
+
+    /**
+     * Gets or creates the line-of-sight cache for the specified world.
+     *
+     * @param world The server world
+     * @return The cache instance for this world
+     */
+    public static LineOfSightCache get(ServerWorld world) {
+        return INSTANCES.computeIfAbsent(world.getRegistryKey().getValue().toString(),
+            k -> new LineOfSightCache(world));
+    }
+
+    /**
+     * Clears all caches (for cleanup).
+     */
+    public static void clearAll() {
+        INSTANCES.clear();
+    }
+
+    private LineOfSightCache(ServerWorld world) {
+        this.world = world;
+        this.entries = new HashMap<>();
+        this.lastCleanupTick = 0;
+    }
+
+    /**
+     * Checks whether an observer can see a target, using a cached raycast when possible.
+     *
+     * @param observer The entity looking
+     * @param target The entity being looked at
+     * @return true if the target is visible from the observer's eyes
+     */
+    public boolean canSee(LivingEntity observer, Entity target) {
+        if (observer.getWorld() != world || target.getWorld() != world) {
+            return observer.canSee(target);
+        }
+
+        int currentTick = world.getServer().getTicks();
+        cleanupIfNeeded(currentTick);
+
+        Vec3d from = observer.getEyePos();
+        Vec3d to = target.getEyePos();
+        SightKey key = new SightKey(BlockPos.ofFloored(from).asLong(), BlockPos.ofFloored(to).asLong());
+
+        SightEntry entry = entries.get(key);
+        if (entry != null && currentTick - entry.tick < TTL_TICKS
+                && !BlockChangeTracker.get(world).hasAnyChangedSince(entry.sections, entry.tick)) {
+            return entry.visible;
+        }
+
+        boolean visible = observer.canSee(target);
+        entries.put(key, new SightEntry(visible, currentTick, traversedSections(from, to)));
+        return visible;
+    }
+
+    /**
+     * Gets the number of cached results.
+     *
+     * @return Number of cache entries
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Collects the chunk sections a ray passes through, sampling every couple of blocks.
+     */
+    private static long[] traversedSections(Vec3d from, Vec3d to) {
+        LongOpenHashSet sections = new LongOpenHashSet();
+        double length = from.distanceTo(to);
+        int steps = Math.max(1, (int) Math.ceil(length / SECTION_SAMPLE_STEP));
+
+        for (int i = 0; i <= steps; i++) {
+            double t = (double) i / steps;
+            double x = from.x + (to.x - from.x) * t;
+            double y = from.y + (to.y - from.y) * t;
+            double z = from.z + (to.z - from.z) * t;
+            sections.add(ChunkSectionPos.asLong(
+                ChunkSectionPos.getSectionCoord(x),
+                ChunkSectionPos.getSectionCoord(y),
+                ChunkSectionPos.getSectionCoord(z)));
+        }
+
+        return sections.toLongArray();
+    }
+
+    /**
+     * Removes expired entries periodically.
+     */
+    private void cleanupIfNeeded(int currentTick) {
+        if (currentTick - lastCleanupTick < CLEANUP_INTERVAL) {
+            return;
+        }
+        lastCleanupTick = currentTick;
+
+        Iterator<SightEntry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            if (currentTick - iterator.next().tick >= TTL_TICKS) {
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Observer and target eye block positions.
+     */
+    private record SightKey(long observerPos, long targetPos) {
+    }
+
+    /**
+     * Cached raycast result and the chunk sections it depends on.
+     */
+    private record SightEntry(boolean visible, int tick, long[] sections) {
+    }
+}
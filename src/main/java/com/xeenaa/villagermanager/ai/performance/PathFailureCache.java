@@ -0,0 +1,212 @@
+package com.xeenaa.villagermanager.ai.performance;
+
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import net.minecraft.entity.ai.pathing.Path;
+import net.minecraft.entity.passive.VillagerEntity;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Negative cache of recently failed guard paths, with exponential backoff.
+ *
+ * <p>A failed A* search explores its whole node budget before giving up, which makes it
+ * the most expensive search there is. Failures are recorded per pair of
+ * {@value #REGION_SIZE}-block start and goal regions. A failed pair is not retried for
+ * {@link #BASE_BACKOFF_TICKS}, doubling with each further failure up to
+ * {@link #MAX_BACKOFF_TICKS}; a success clears it.</p>
+ *
+ * <p>Destinations a guard got stuck on (see {@link StuckDetector}) are blacklisted for
+ * {@link #STUCK_BLACKLIST_TICKS}, for that guard only: another guard (or a different
+ * route) may well reach them. Combat movement never consults the blacklist.</p>
+ *
+ * @since 1.0.0
+ */
+public class PathFailureCache {
+    private static final Map<String, PathFailureCache> INSTANCES = new ConcurrentHashMap<>();
+
+    /**
+     * Width (in blocks) of the start and goal regions failures are keyed by.
+     */
+    public static final int REGION_SIZE = 8;
+
+    /**
+     * Backoff after the first failure between two regions.
+     */
+    public static final int BASE_BACKOFF_TICKS = 40; // 2 seconds
+
+    /**
+     * Longest backoff, reached after repeated failures.
+     */
+    public static final int MAX_BACKOFF_TICKS = 1280; // ~1 minute
+
+    /**
+     * How long a destination a guard got stuck on stays blacklisted.
+     */
+    public static final int STUCK_BLACKLIST_TICKS = 600; // 30 seconds
+
+    private static final int REGION_SHIFT = 3; // log2(REGION_SIZE)
+    private static final int FORGET_AFTER_TICKS = 2400; // Failure streaks reset after 2 minutes
+    private static final int CLEANUP_INTERVAL = 600;
+
+    private final ServerWorld world;
+    private final Map<RegionPair, Failure> failures;
+    private final Object2IntMap<GuardGoal> blacklistedGoals;
+    private int lastCleanupTick;
+
+    /**
+     * Gets or creates the path failure cache for the specified world.
+     *
+     * @param world The server world
+     * @return The cache for this world
+     */
+    public static PathFailureCache get(ServerWorld world) {
+        return INSTANCES.computeIfAbsent(world.getRegistryKey().getValue().toString(),
+            k -> new PathFailureCache(world));
+    }
+
+    /**
+     * Clears all caches (for cleanup).
+     */
+    public static void clearAll() {
+        INSTANCES.clear();
+    }
+
+    /**
+     * Computes the backoff after a number of consecutive failures.
+     *
+     * @param failureCount Consecutive failures (at least 1)
+     * @return Ticks to wait before retrying
+     */
+    static int backoffTicks(int failureCount) {
+        int shift = Math.min(Math.max(0, failureCount - 1), 5);
+        return Math.min(MAX_BACKOFF_TICKS, BASE_BACKOFF_TICKS << shift);
+    }
+
+    private PathFailureCache(ServerWorld world) {
+        this.world = world;
+        this.failures = new HashMap<>();
+        this.blacklistedGoals = new Object2IntOpenHashMap<>();
+    }
+
+    /**
+     * Checks whether pathing between two positions should be skipped for now because the
+     * same regions failed recently. Ignores stuck blacklists (used for combat movement).
+     *
+     * @param from Start position
+     * @param to Goal position
+     * @return true if the pair failed recently
+     */
+    public boolean isBlocked(BlockPos from, BlockPos to) {
+        int currentTick = world.getServer().getTicks();
+        cleanupIfNeeded(currentTick);
+
+        Failure failure = failures.get(new RegionPair(regionOf(from), regionOf(to)));
+        return failure != null && currentTick < failure.retryTick;
+    }
+
+    /**
+     * Checks whether a guard should skip pathing to a destination for now: the pair failed
+     * recently, or the guard itself got stuck on the destination.
+     *
+     * @param guard The guard villager
+     * @param to Goal position
+     * @return true if the search should be skipped
+     */
+    public boolean isBlocked(VillagerEntity guard, BlockPos to) {
+        if (isBlocked(guard.getBlockPos(), to)) {
+            return true;
+        }
+        GuardGoal key = new GuardGoal(guard.getUuid(), regionOf(to));
+        return blacklistedGoals.containsKey(key) && world.getServer().getTicks() < blacklistedGoals.getInt(key);
+    }
+
+    /**
+     * Records the outcome of a path search. A null path or one that does not reach its
+     * target counts as a failure.
+     *
+     * @param from Start position
+     * @param to Goal position
+     * @param path The search result
+     */
+    public void recordResult(BlockPos from, BlockPos to, Path path) {
+        RegionPair key = new RegionPair(regionOf(from), regionOf(to));
+        if (path != null && path.reachesTarget()) {
+            failures.remove(key);
+            return;
+        }
+
+        int currentTick = world.getServer().getTicks();
+        Failure failure = failures.computeIfAbsent(key, k -> new Failure());
+        failure.count++;
+        failure.retryTick = currentTick + backoffTicks(failure.count);
+    }
+
+    /**
+     * Blacklists a destination a guard could not make progress toward, for that guard.
+     *
+     * @param guardId The stuck guard's UUID
+     * @param to The destination
+     */
+    public void blacklistDestination(UUID guardId, BlockPos to) {
+        blacklistedGoals.put(new GuardGoal(guardId, regionOf(to)), world.getServer().getTicks() + STUCK_BLACKLIST_TICKS);
+    }
+
+    /**
+     * Drops a guard's blacklist entries (on unload or death).
+     *
+     * @param guardId The guard UUID
+     */
+    public void forget(UUID guardId) {
+        blacklistedGoals.keySet().removeIf(key -> key.guardId().equals(guardId));
+    }
+
+    /**
+     * Gets the number of region pairs with recorded failures.
+     */
+    public int size() {
+        return failures.size();
+    }
+
+    private static long regionOf(BlockPos pos) {
+        return BlockPos.asLong(pos.getX() >> REGION_SHIFT, pos.getY() >> REGION_SHIFT, pos.getZ() >> REGION_SHIFT);
+    }
+
+    /**
+     * Drops expired blacklist entries and failure streaks that have gone quiet.
+     */
+    private void cleanupIfNeeded(int currentTick) {
+        if (currentTick - lastCleanupTick < CLEANUP_INTERVAL) {
+            return;
+        }
+        lastCleanupTick = currentTick;
+
+        failures.values().removeIf(failure -> currentTick - failure.retryTick > FORGET_AFTER_TICKS);
+        blacklistedGoals.values().removeIf(until -> currentTick >= until);
+    }
+
+    /**
+     * Start and goal regions of a path search.
+     */
+    private record RegionPair(long from, long to) {
+    }
+
+    /**
+     * Destination region blacklisted for one guard.
+     */
+    private record GuardGoal(UUID guardId, long goal) {
+    }
+
+    /**
+     * Consecutive failures of a region pair and when it may be retried.
+     */
+    private static class Failure {
+        int count;
+        int retryTick;
+    }
+}
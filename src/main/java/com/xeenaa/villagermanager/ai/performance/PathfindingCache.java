@@ -1,5 +1,6 @@
 package com.xeenaa.villagermanager.ai.performance;
 
+import net.minecraft.server.world.ServerWorld;
 import net.minecraft.util.math.BlockPos;
 
 import java.util.Map;
@@ -17,18 +18,42 @@ import java.util.concurrent.ConcurrentHashMap;
  *   <li>After a time threshold (40 ticks / 2 seconds)</li>
  *   <li>When the guard moves significantly (>8 blocks)</li>
  *   <li>When the target moves significantly (>8 blocks)</li>
+ *   <li>When the guard unloads or dies ({@link #invalidate(UUID)})</li>
  * </ul>
  *
+ * <p>One cache is shared per world so entries of departed guards can be dropped from
+ * entity lifecycle events.</p>
+ *
  * @since 1.0.0
  */
 public class PathfindingCache {
+    private static final Map<String, PathfindingCache> INSTANCES = new ConcurrentHashMap<>();
+
     private static final int CACHE_DURATION_TICKS = 40;  // 2 seconds
     private static final double POSITION_CHANGE_THRESHOLD = 8.0;  // 8 blocks
 
     private final Map<UUID, CachedPath> pathCache;
     private final Map<UUID, CachedPatrolPosition> patrolCache;
 
-    public PathfindingCache() {
+    /**
+     * Gets or creates the pathfinding cache for the specified world.
+     *
+     * @param world The server world
+     * @return The cache for this world
+     */
+    public static PathfindingCache get(ServerWorld world) {
+        return INSTANCES.computeIfAbsent(world.getRegistryKey().getValue().toString(),
+            k -> new PathfindingCache());
+    }
+
+    /**
+     * Clears all caches (for cleanup).
+     */
+    public static void clearAll() {
+        INSTANCES.clear();
+    }
+
+    private PathfindingCache() {
         this.pathCache = new ConcurrentHashMap<>();
         this.patrolCache = new ConcurrentHashMap<>();
     }
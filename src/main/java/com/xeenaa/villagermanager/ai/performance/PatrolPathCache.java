@@ -0,0 +1,189 @@
+package com.xeenaa.villagermanager.ai.performance;
+
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import net.minecraft.entity.ai.pathing.Path;
+import net.minecraft.entity.ai.pathing.PathNode;
+import net.minecraft.entity.passive.VillagerEntity;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkSectionPos;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * World-level cache of patrol paths shared by every guard patrolling the same post.
+ *
+ * <p>Patrol destinations are snapped to {@link #CELL_SIZE}-block cells around the post
+ * ({@link #snapToCell(BlockPos)}), and paths are keyed by the post and the origin and
+ * destination cells. Guards walking between the same cells of the same post reuse one
+ * computed {@link Path} instead of each running the pathfinder over identical terrain.</p>
+ *
+ * <p>Entries expire after {@link #TTL_TICKS} and are invalidated early when any chunk
+ * section a path passes through has a block change (see {@link BlockChangeTracker}).
+ * Every caller gets its own copy, since navigation advances a path as it is followed.</p>
+ *
+ * @since 1.0.0
+ */
+public class PatrolPathCache {
+    private static final Map<String, PatrolPathCache> INSTANCES = new ConcurrentHashMap<>();
+
+    /**
+     * Width (in blocks) of the cells patrol destinations snap to.
+     */
+    public static final int CELL_SIZE = 4;
+
+    /**
+     * How long (in ticks) a cached path stays valid without block changes.
+     */
+    public static final int TTL_TICKS = 1200; // 1 minute, well inside the block change retention
+
+    private static final int CELL_SHIFT = 2; // log2(CELL_SIZE)
+    private static final int CLEANUP_INTERVAL = 600; // 30 seconds
+
+    private final ServerWorld world;
+    private final Map<PathKey, PathEntry> entries;
+    private int lastCleanupTick;
+
+    /**
+     * Gets or creates the patrol path cache for the specified world.
+     *
+     * @param world The server world
+     * @return The cache instance for this world
+     */
+    public static PatrolPathCache get(ServerWorld world) {
+        return INSTANCES.computeIfAbsent(world.getRegistryKey().getValue().toString(),
+            k -> new PatrolPathCache(world));
+    }
+
+    /**
+     * Clears all caches (for cleanup).
+     */
+    public static void clearAll() {
+        INSTANCES.clear();
+    }
+
+    /**
+     * Snaps a position to the centre column of its cell, keeping its height.
+     *
+     * @param pos The position
+     * @return The cell centre at the same height
+     */
+    public static BlockPos snapToCell(BlockPos pos) {
+        int half = CELL_SIZE / 2;
+        return new BlockPos((pos.getX() & -CELL_SIZE) + half, pos.getY(), (pos.getZ() & -CELL_SIZE) + half);
+    }
+
+    private PatrolPathCache(ServerWorld world) {
+        this.world = world;
+        this.entries = new HashMap<>();
+        this.lastCleanupTick = 0;
+    }
+
+    /**
+     * Gets a cached path from a guard's position to a patrol destination without pathfinding.
+     *
+     * @param guard The guard villager
+     * @param post The guard post (or patrol centre) the guard patrols
+     * @param destination The patrol destination
+     * @return A path owned by the caller, or null if none is cached
+     */
+    public Path getCachedPath(VillagerEntity guard, BlockPos post, BlockPos destination) {
+        int currentTick = world.getServer().getTicks();
+        cleanupIfNeeded(currentTick);
+
+        PathEntry entry = entries.get(new PathKey(post.asLong(), cellKey(guard.getBlockPos()), cellKey(destination)));
+        if (entry != null && currentTick - entry.tick < TTL_TICKS
+                && !BlockChangeTracker.get(world).hasAnyChangedSince(entry.sections, entry.tick)) {
+            return copyOf(entry.path);
+        }
+        return null;
+    }
+
+    /**
+     * Stores a path computed elsewhere (e.g. through {@link GuardPathfinder}) for the guards
+     * of a post.
+     *
+     * @param origin Where the path starts
+     * @param post The guard post (or patrol centre) the path belongs to
+     * @param destination The patrol destination
+     * @param path The path; the cache keeps it, so callers must not follow it
+     */
+    public void cachePath(BlockPos origin, BlockPos post, BlockPos destination, Path path) {
+        entries.put(new PathKey(post.asLong(), cellKey(origin), cellKey(destination)),
+            new PathEntry(path, world.getServer().getTicks(), traversedSections(path)));
+    }
+
+    /**
+     * Gets the number of cached paths.
+     *
+     * @return Number of cache entries
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    private static long cellKey(BlockPos pos) {
+        return BlockPos.asLong(pos.getX() >> CELL_SHIFT, pos.getY(), pos.getZ() >> CELL_SHIFT);
+    }
+
+    /**
+     * Copies a path so followers do not share its node list or progress.
+     */
+    static Path copyOf(Path path) {
+        List<PathNode> nodes = new ArrayList<>(path.getLength());
+        for (int i = 0; i < path.getLength(); i++) {
+            nodes.add(path.getNode(i));
+        }
+        return new Path(nodes, path.getTarget(), path.reachesTarget());
+    }
+
+    /**
+     * Collects the chunk sections a path's nodes (and the space above them) lie in.
+     */
+    private static long[] traversedSections(Path path) {
+        LongOpenHashSet sections = new LongOpenHashSet();
+        for (int i = 0; i < path.getLength(); i++) {
+            PathNode node = path.getNode(i);
+            int sectionX = ChunkSectionPos.getSectionCoord(node.x);
+            int sectionZ = ChunkSectionPos.getSectionCoord(node.z);
+            // Floor below and headroom above can sit in neighbouring sections
+            sections.add(ChunkSectionPos.asLong(sectionX, ChunkSectionPos.getSectionCoord(node.y - 1), sectionZ));
+            sections.add(ChunkSectionPos.asLong(sectionX, ChunkSectionPos.getSectionCoord(node.y + 1), sectionZ));
+        }
+        return sections.toLongArray();
+    }
+
+    /**
+     * Removes expired entries periodically.
+     */
+    private void cleanupIfNeeded(int currentTick) {
+        if (currentTick - lastCleanupTick < CLEANUP_INTERVAL) {
+            return;
+        }
+        lastCleanupTick = currentTick;
+
+        Iterator<PathEntry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            if (currentTick - iterator.next().tick >= TTL_TICKS) {
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Guard post and the origin and destination cells of a path.
+     */
+    private record PathKey(long post, long fromCell, long toCell) {
+    }
+
+    /**
+     * Cached path and the chunk sections it depends on.
+     */
+    private record PathEntry(Path path, int tick, long[] sections) {
+    }
+}
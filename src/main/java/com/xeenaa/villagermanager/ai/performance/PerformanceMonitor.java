@@ -1,5 +1,6 @@
 package com.xeenaa.villagermanager.ai.performance;
 
+import com.xeenaa.villagermanager.config.ModConfig;
 import net.minecraft.server.world.ServerWorld;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -18,7 +19,8 @@ import java.util.concurrent.ConcurrentHashMap;
  *   <li>Overall system performance</li>
  * </ul>
  *
- * <p>Use this class to identify performance bottlenecks and validate optimizations.</p>
+ * <p>Use this class to identify performance bottlenecks and validate optimizations. The
+ * periodic report is only logged with {@code log_performance_report} enabled.</p>
  *
  * @since 1.0.0
  */
@@ -33,6 +35,7 @@ public class PerformanceMonitor {
     private int totalThreatScans = 0;
     private int skippedAIUpdates = 0;
     private int skippedThreatScans = 0;
+    private int rejectedWorldReads = 0;
     private int lastReportTick = 0;
 
     private static final int REPORT_INTERVAL = 6000; // Report every 5 minutes
@@ -88,11 +91,18 @@ public class PerformanceMonitor {
         skippedThreatScans++;
     }
 
+    /**
+     * Records a guard AI block read rejected because its chunk was not loaded.
+     */
+    public void recordRejectedWorldRead() {
+        rejectedWorldReads++;
+    }
+
     /**
      * Records a custom performance metric.
      *
      * @param name Metric name
-     * @param value Metric value (e.g., execution time in ms)
+     * @param value Metric value (e.g., execution time in ms, or 100/0 per hit/miss for a hit rate)
      */
     public void recordMetric(String name, long value) {
         PerformanceMetric metric = metrics.computeIfAbsent(name, k -> new PerformanceMetric());
@@ -106,7 +116,9 @@ public class PerformanceMonitor {
         int currentTick = world.getServer().getTicks();
 
         if (currentTick - lastReportTick >= REPORT_INTERVAL) {
-            reportPerformanceStats();
+            if (ModConfig.getInstance().getPerformanceSettings().log_performance_report) {
+                reportPerformanceStats();
+            }
             resetCounters();
             lastReportTick = currentTick;
         }
@@ -125,17 +137,18 @@ public class PerformanceMonitor {
             (skippedThreatScans * 100.0 / totalScans) : 0;
 
         LOGGER.info("=== Guard AI Performance Report ===");
-        LOGGER.info("AI Updates: {} executed, {} skipped ({:.1f}% reduction)",
-            totalAIUpdates, skippedAIUpdates, aiReductionPercent);
-        LOGGER.info("Threat Scans: {} executed, {} skipped ({:.1f}% reduction)",
-            totalThreatScans, skippedThreatScans, scanReductionPercent);
+        LOGGER.info("AI Updates: {} executed, {} skipped ({}% reduction)",
+            totalAIUpdates, skippedAIUpdates, String.format("%.1f", aiReductionPercent));
+        LOGGER.info("Threat Scans: {} executed, {} skipped ({}% reduction)",
+            totalThreatScans, skippedThreatScans, String.format("%.1f", scanReductionPercent));
+        LOGGER.info("Rejected World Reads: {} (unloaded chunks)", rejectedWorldReads);
 
         // Report custom metrics
         for (Map.Entry<String, PerformanceMetric> entry : metrics.entrySet()) {
             PerformanceMetric metric = entry.getValue();
-            LOGGER.info("Metric [{}]: avg={:.2f}ms, min={}ms, max={}ms, count={}",
+            LOGGER.info("Metric [{}]: avg={}, min={}, max={}, count={}",
                 entry.getKey(),
-                metric.getAverage(),
+                String.format("%.2f", metric.getAverage()),
                 metric.getMin(),
                 metric.getMax(),
                 metric.getCount());
@@ -152,6 +165,7 @@ public class PerformanceMonitor {
         totalThreatScans = 0;
         skippedAIUpdates = 0;
         skippedThreatScans = 0;
+        rejectedWorldReads = 0;
         metrics.clear();
     }
 
@@ -175,6 +189,15 @@ public class PerformanceMonitor {
         return total > 0 ? (skippedThreatScans * 100.0 / total) : 0;
     }
 
+    /**
+     * Gets the number of guard AI block reads rejected since the last report.
+     *
+     * @return Rejected reads
+     */
+    public int getRejectedWorldReads() {
+        return rejectedWorldReads;
+    }
+
     /**
      * Stores statistics for a performance metric.
      */
@@ -0,0 +1,145 @@
+package com.xeenaa.villagermanager.ai.performance;
+
+import it.unimi.dsi.fastutil.longs.Long2IntMap;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayFIFOQueue;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import net.minecraft.entity.Entity;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.ChunkPos;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Chunk-granularity distance field from every chunk to the nearest player.
+ *
+ * <p>Once per tick the player chunk positions are snapshotted. Only when the set of
+ * player chunks changes (a player crossed a chunk boundary, joined, left or changed
+ * spectator mode) the field is rebuilt with a breadth-first search out to
+ * {@link #MIN_RADIUS_CHUNKS} or the server's simulation distance, whichever is larger.
+ * Lookups are then a single hash lookup per guard instead
+ * of an entity query.</p>
+ *
+ * <p>Distances are Chebyshev distances in chunks; chunks beyond the radius report
+ * {@link #UNREACHED}.</p>
+ *
+ * @since 1.0.0
+ */
+public class PlayerDistanceField {
+    private static final Map<String, PlayerDistanceField> INSTANCES = new ConcurrentHashMap<>();
+
+    /**
+     * Minimum distance (in chunks) the field extends from each player.
+     */
+    public static final int MIN_RADIUS_CHUNKS = 8; // 128 blocks
+
+    /**
+     * Distance reported for chunks outside the field.
+     */
+    public static final int UNREACHED = Integer.MAX_VALUE;
+
+    private final ServerWorld world;
+    private final Long2IntMap distances;
+    private LongSet playerChunks;
+    private int radiusChunks = MIN_RADIUS_CHUNKS;
+    private int lastSnapshotTick = -1;
+
+    /**
+     * Gets or creates the distance field for the specified world.
+     *
+     * @param world The server world
+     * @return The distance field for this world
+     */
+    public static PlayerDistanceField get(ServerWorld world) {
+        return INSTANCES.computeIfAbsent(world.getRegistryKey().getValue().toString(),
+            k -> new PlayerDistanceField(world));
+    }
+
+    /**
+     * Clears all fields (for cleanup).
+     */
+    public static void clearAll() {
+        INSTANCES.clear();
+    }
+
+    private PlayerDistanceField(ServerWorld world) {
+        this.world = world;
+        this.distances = new Long2IntOpenHashMap();
+        this.distances.defaultReturnValue(UNREACHED);
+        this.playerChunks = new LongOpenHashSet();
+    }
+
+    /**
+     * Gets the distance in chunks from an entity's chunk to the nearest player's chunk.
+     *
+     * @param entity The entity
+     * @return Chebyshev chunk distance, or {@link #UNREACHED} if beyond the field radius
+     */
+    public int getChunkDistance(Entity entity) {
+        ensureCurrent();
+        return distances.get(ChunkPos.toLong(entity.getBlockX() >> 4, entity.getBlockZ() >> 4));
+    }
+
+    /**
+     * Snapshots player chunks for this tick and rebuilds the field if they changed.
+     */
+    private void ensureCurrent() {
+        int currentTick = world.getServer().getTicks();
+        if (currentTick == lastSnapshotTick) {
+            return;
+        }
+        lastSnapshotTick = currentTick;
+
+        LongSet snapshot = new LongOpenHashSet();
+        for (ServerPlayerEntity player : world.getPlayers()) {
+            if (!player.isSpectator()) {
+                snapshot.add(ChunkPos.toLong(player.getBlockX() >> 4, player.getBlockZ() >> 4));
+            }
+        }
+
+        // The field must reach the simulation distance so dormant guards can be told apart
+        int radius = Math.max(MIN_RADIUS_CHUNKS, world.getServer().getPlayerManager().getSimulationDistance());
+
+        if (!snapshot.equals(playerChunks) || radius != radiusChunks) {
+            playerChunks = snapshot;
+            radiusChunks = radius;
+            rebuild();
+        }
+    }
+
+    /**
+     * Multi-source BFS from every player chunk out to the field radius.
+     */
+    private void rebuild() {
+        distances.clear();
+        LongArrayFIFOQueue queue = new LongArrayFIFOQueue();
+
+        for (long chunk : playerChunks) {
+            distances.put(chunk, 0);
+            queue.enqueue(chunk);
+        }
+
+        while (!queue.isEmpty()) {
+            long chunk = queue.dequeueLong();
+            int distance = distances.get(chunk);
+            if (distance >= radiusChunks) {
+                continue;
+            }
+
+            int chunkX = ChunkPos.getPackedX(chunk);
+            int chunkZ = ChunkPos.getPackedZ(chunk);
+            for (int dx = -1; dx <= 1; dx++) {
+                for (int dz = -1; dz <= 1; dz++) {
+                    long neighbor = ChunkPos.toLong(chunkX + dx, chunkZ + dz);
+                    if (!distances.containsKey(neighbor)) {
+                        distances.put(neighbor, distance + 1);
+                        queue.enqueue(neighbor);
+                    }
+                }
+            }
+        }
+    }
+}
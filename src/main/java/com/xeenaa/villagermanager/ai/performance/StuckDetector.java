@@ -0,0 +1,55 @@
+package com.xeenaa.villagermanager.ai.performance;
+
+import net.minecraft.util.math.BlockPos;
+
+/**
+ * Detects a moving guard that has stopped making progress.
+ *
+ * <p>Each goal that moves a guard owns one detector and feeds it the guard's position
+ * while a path is being followed. The guard counts as stuck once it has stayed within
+ * {@link #PROGRESS_DISTANCE} blocks of the same spot for the configured number of ticks.</p>
+ *
+ * @since 1.0.0
+ */
+public class StuckDetector {
+    /**
+     * Movement (in blocks) that counts as progress.
+     */
+    public static final double PROGRESS_DISTANCE = 1.0;
+
+    private final int stuckTicks;
+    private BlockPos lastProgressPos;
+    private int lastProgressTick;
+
+    /**
+     * Creates a detector.
+     *
+     * @param stuckTicks Ticks without progress after which a guard is stuck
+     */
+    public StuckDetector(int stuckTicks) {
+        this.stuckTicks = stuckTicks;
+    }
+
+    /**
+     * Records the guard's position and checks for lack of progress.
+     *
+     * @param pos The guard's current position
+     * @param currentTick The current server tick
+     * @return true if the guard has not made progress for the configured ticks
+     */
+    public boolean update(BlockPos pos, int currentTick) {
+        if (lastProgressPos == null || !pos.isWithinDistance(lastProgressPos, PROGRESS_DISTANCE)) {
+            lastProgressPos = pos;
+            lastProgressTick = currentTick;
+            return false;
+        }
+        return currentTick - lastProgressTick > stuckTicks;
+    }
+
+    /**
+     * Restarts progress tracking (e.g. after a new path was started).
+     */
+    public void reset() {
+        lastProgressPos = null;
+    }
+}
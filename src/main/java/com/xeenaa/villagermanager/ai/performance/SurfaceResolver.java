@@ -0,0 +1,87 @@
+package com.xeenaa.villagermanager.ai.performance;
+
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.Heightmap;
+import net.minecraft.world.World;
+import net.minecraft.world.chunk.WorldChunk;
+
+/**
+ * Resolves standable surface positions for guard movement targets.
+ *
+ * <p>The chunk's {@link Heightmap.Type#MOTION_BLOCKING_NO_LEAVES} heightmap gives the open-air
+ * surface of a column in a single lookup. When that surface is near the height asked for,
+ * it is used directly. Otherwise (overhangs, building interiors, caves) a bounded search
+ * around the requested height runs instead, so a column is never walked down to the
+ * bottom of the world.</p>
+ *
+ * <p>Columns in unloaded chunks resolve to {@code null} rather than loading the chunk
+ * (see {@link GuardWorldAccess}).</p>
+ *
+ * @since 1.0.0
+ */
+public final class SurfaceResolver {
+
+    private SurfaceResolver() {
+    }
+
+    /**
+     * Finds a standable position in a column close to a given height.
+     *
+     * @param world The world
+     * @param x Column X
+     * @param nearY Preferred height
+     * @param z Column Z
+     * @param range How far above or below {@code nearY} the result may be
+     * @return The standable position closest to {@code nearY}, or null if none is in range
+     */
+    public static BlockPos findStandable(World world, int x, int nearY, int z, int range) {
+        int surfaceY = GuardWorldAccess.getTopY(world, Heightmap.Type.MOTION_BLOCKING_NO_LEAVES, x, z);
+        if (surfaceY == GuardWorldAccess.UNKNOWN_HEIGHT) {
+            return null;
+        }
+
+        BlockPos.Mutable mutable = new BlockPos.Mutable();
+
+        // Fast path: the open-air surface is at the requested level
+        if (Math.abs(surfaceY - nearY) <= range && isStandable(world, mutable.set(x, surfaceY, z))) {
+            return mutable.toImmutable();
+        }
+
+        // Bounded local search, nearest heights first
+        for (int offset = 0; offset <= range; offset++) {
+            if (isStandable(world, mutable.set(x, nearY + offset, z))) {
+                return mutable.toImmutable();
+            }
+            if (offset > 0 && isStandable(world, mutable.set(x, nearY - offset, z))) {
+                return mutable.toImmutable();
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Checks for solid ground below and two free, dry blocks of headroom.
+     *
+     * @param world The world
+     * @param pos The position a mob would stand in
+     * @return true if a mob can stand at the position
+     */
+    public static boolean isStandable(World world, BlockPos pos) {
+        if (!world.isInBuildLimit(pos)) {
+            return false;
+        }
+        WorldChunk chunk = GuardWorldAccess.getLoadedChunk(world, pos.getX() >> 4, pos.getZ() >> 4);
+        if (chunk == null) {
+            return false;
+        }
+
+        // The column lies in one chunk, so the remaining reads go to it directly
+        BlockPos below = pos.down();
+        BlockPos above = pos.up();
+        return chunk.getBlockState(below).isSolidBlock(world, below)
+            && !chunk.getBlockState(pos).isSolidBlock(world, pos)
+            && !chunk.getBlockState(above).isSolidBlock(world, above)
+            && chunk.getFluidState(pos).isEmpty();
+    }
+}
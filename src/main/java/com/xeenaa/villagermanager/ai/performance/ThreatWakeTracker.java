@@ -0,0 +1,328 @@
+package com.xeenaa.villagermanager.ai.performance;
+
+import it.unimi.dsi.fastutil.longs.Long2IntMap;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectIterator;
+import it.unimi.dsi.fastutil.objects.Reference2LongMap;
+import it.unimi.dsi.fastutil.objects.Reference2LongOpenHashMap;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.mob.HostileEntity;
+import net.minecraft.entity.passive.VillagerEntity;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.ChunkSectionPos;
+import net.minecraft.util.math.MathHelper;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Raises threat wake-up signals for idle guards when hostile mobs come near.
+ *
+ * <p>Idle guards register a watch area: the chunk sections within {@link #WATCH_RADIUS}
+ * horizontally and {@link HostileEntityIndex#DEFAULT_VERTICAL_RANGE} vertically of their
+ * eyes, the same vertical clamp threat scans use. A hostile mob that loads or spawns in a
+ * watched section, or moves into one, wakes every guard watching that section. Cave mobs
+ * far below a village never do. The {@link GuardAIScheduler} only runs threat scans for
+ * idle guards with a recent wake signal, falling back to a slow safety-net poll
+ * otherwise, so quiet villages do almost no threat detection work.</p>
+ *
+ * <p>Hostile section crossings are detected once per server tick by comparing each
+ * loaded hostile's current section with the one recorded on the previous tick. Hostiles
+ * are also counted per section, so a guard that starts watching an area with hostiles
+ * already in it is woken at once, and a guard keeps its normal scan interval while
+ * hostiles stay in its area (e.g. a skeleton standing still).</p>
+ *
+ * @since 1.0.0
+ */
+public class ThreatWakeTracker {
+    private static final Map<String, ThreatWakeTracker> INSTANCES = new ConcurrentHashMap<>();
+
+    /**
+     * Horizontal radius (in blocks) a guard watches for hostiles.
+     * Covers the largest rank-based detection range.
+     */
+    public static final double WATCH_RADIUS = 32.0;
+
+    private static final int WATCH_RADIUS_CHUNKS = (int) Math.ceil(WATCH_RADIUS / 16.0);
+
+    private final ServerWorld world;
+    private final Long2ObjectMap<Set<UUID>> watchersBySection;
+    private final Map<UUID, WatchArea> watchAreas;
+    private final Object2IntMap<UUID> lastWakeTicks;
+    private final Reference2LongMap<HostileEntity> hostileSections;
+    private final Long2IntMap hostilesBySection;
+
+    /**
+     * The sections a guard watches: a square of chunk columns around its own, limited to
+     * a band of section Ys around its eyes.
+     *
+     * @param chunkX Center chunk X
+     * @param chunkZ Center chunk Z
+     * @param minSectionY Lowest watched section Y
+     * @param maxSectionY Highest watched section Y
+     */
+    private record WatchArea(int chunkX, int chunkZ, int minSectionY, int maxSectionY) {
+        static WatchArea around(VillagerEntity guard) {
+            int eyeY = MathHelper.floor(guard.getEyeY());
+            return new WatchArea(
+                guard.getBlockX() >> 4,
+                guard.getBlockZ() >> 4,
+                (eyeY - (int) HostileEntityIndex.DEFAULT_VERTICAL_RANGE) >> 4,
+                (eyeY + (int) HostileEntityIndex.DEFAULT_VERTICAL_RANGE) >> 4);
+        }
+
+        boolean contains(long section) {
+            int sectionY = ChunkSectionPos.unpackY(section);
+            return sectionY >= minSectionY && sectionY <= maxSectionY
+                && Math.abs(ChunkSectionPos.unpackX(section) - chunkX) <= WATCH_RADIUS_CHUNKS
+                && Math.abs(ChunkSectionPos.unpackZ(section) - chunkZ) <= WATCH_RADIUS_CHUNKS;
+        }
+    }
+
+    /**
+     * Gets or creates the wake tracker for the specified world.
+     *
+     * @param world The server world
+     * @return The tracker instance for this world
+     */
+    public static ThreatWakeTracker get(ServerWorld world) {
+        return INSTANCES.computeIfAbsent(world.getRegistryKey().getValue().toString(),
+            k -> new ThreatWakeTracker(world));
+    }
+
+    /**
+     * Clears all trackers (for cleanup).
+     */
+    public static void clearAll() {
+        INSTANCES.clear();
+    }
+
+    private ThreatWakeTracker(ServerWorld world) {
+        this.world = world;
+        this.watchersBySection = new Long2ObjectOpenHashMap<>();
+        this.watchAreas = new HashMap<>();
+        this.lastWakeTicks = new Object2IntOpenHashMap<>();
+        this.lastWakeTicks.defaultReturnValue(Integer.MIN_VALUE);
+        this.hostileSections = new Reference2LongOpenHashMap<>();
+        this.hostilesBySection = new Long2IntOpenHashMap();
+    }
+
+    /**
+     * Registers (or moves) a guard's watch area around its current position.
+     * Does nothing if the guard's watched sections are unchanged.
+     *
+     * @param guard The guard villager
+     */
+    public void watch(VillagerEntity guard) {
+        UUID guardId = guard.getUuid();
+        WatchArea area = WatchArea.around(guard);
+
+        WatchArea previous = watchAreas.get(guardId);
+        if (area.equals(previous)) {
+            return;
+        }
+        if (previous != null) {
+            updateSections(guardId, previous, false);
+        }
+
+        watchAreas.put(guardId, area);
+        updateSections(guardId, area, true);
+
+        // Hostiles already in the new area never cross into it: wake the guard now
+        if (hasHostileIn(area)) {
+            lastWakeTicks.put(guardId, world.getServer().getTicks());
+        }
+    }
+
+    /**
+     * Checks whether any loaded hostile is in a guard's watch area.
+     *
+     * @param guardId The guard UUID
+     * @return true if the guard is watching and a hostile is in one of its sections
+     */
+    public boolean hasHostileInWatchArea(UUID guardId) {
+        WatchArea area = watchAreas.get(guardId);
+        return area != null && hasHostileIn(area);
+    }
+
+    /**
+     * Removes a guard's watch area and any pending wake signal.
+     *
+     * @param guardId The guard UUID
+     */
+    public void unwatch(UUID guardId) {
+        WatchArea area = watchAreas.remove(guardId);
+        if (area != null) {
+            updateSections(guardId, area, false);
+        }
+        lastWakeTicks.removeInt(guardId);
+    }
+
+    /**
+     * Gets the tick of the most recent wake signal for a guard.
+     *
+     * @param guardId The guard UUID
+     * @return The wake tick, or {@link Integer#MIN_VALUE} if the guard was never woken
+     */
+    public int getLastWakeTick(UUID guardId) {
+        return lastWakeTicks.getInt(guardId);
+    }
+
+    /**
+     * Handles an entity being loaded or spawned into the world.
+     *
+     * @param entity The loaded entity
+     */
+    public void onEntityLoad(Entity entity) {
+        if (entity instanceof HostileEntity hostile) {
+            long section = sectionOf(hostile);
+            if (hostileSections.containsKey(hostile)) {
+                adjustSectionCount(hostileSections.getLong(hostile), -1);
+            }
+            hostileSections.put(hostile, section);
+            adjustSectionCount(section, 1);
+            signalSection(section);
+        }
+    }
+
+    /**
+     * Handles an entity being unloaded or removed from the world.
+     *
+     * @param entity The unloaded entity
+     */
+    public void onEntityUnload(Entity entity) {
+        if (entity instanceof HostileEntity hostile && hostileSections.containsKey(hostile)) {
+            adjustSectionCount(hostileSections.removeLong(hostile), -1);
+        }
+    }
+
+    /**
+     * Detects hostile chunk section crossings and signals nearby guards.
+     * Called once per server tick.
+     */
+    public void tick() {
+        ObjectIterator<Reference2LongMap.Entry<HostileEntity>> iterator =
+            hostileSections.reference2LongEntrySet().iterator();
+        while (iterator.hasNext()) {
+            Reference2LongMap.Entry<HostileEntity> entry = iterator.next();
+            HostileEntity hostile = entry.getKey();
+            if (hostile.isRemoved()) {
+                adjustSectionCount(entry.getLongValue(), -1);
+                iterator.remove();
+                continue;
+            }
+
+            long section = sectionOf(hostile);
+            if (section != entry.getLongValue()) {
+                adjustSectionCount(entry.getLongValue(), -1);
+                adjustSectionCount(section, 1);
+                entry.setValue(section);
+                signalSection(section);
+            }
+        }
+    }
+
+    /**
+     * Wakes every guard watching a section.
+     */
+    private void signalSection(long section) {
+        Set<UUID> watchers = watchersBySection.get(section);
+        if (watchers == null) {
+            return;
+        }
+
+        int currentTick = world.getServer().getTicks();
+        for (UUID guardId : watchers) {
+            lastWakeTicks.put(guardId, currentTick);
+        }
+    }
+
+    /**
+     * Checks the hostile counts of every section in a watch area.
+     */
+    private boolean hasHostileIn(WatchArea area) {
+        if (hostilesBySection.isEmpty()) {
+            return false;
+        }
+
+        // Few hostiles are loaded compared to the sections an area covers
+        if (hostilesBySection.size() < sectionCount(area)) {
+            for (Long2IntMap.Entry entry : hostilesBySection.long2IntEntrySet()) {
+                if (area.contains(entry.getLongKey())) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        for (int cx = area.chunkX() - WATCH_RADIUS_CHUNKS; cx <= area.chunkX() + WATCH_RADIUS_CHUNKS; cx++) {
+            for (int cz = area.chunkZ() - WATCH_RADIUS_CHUNKS; cz <= area.chunkZ() + WATCH_RADIUS_CHUNKS; cz++) {
+                for (int sy = area.minSectionY(); sy <= area.maxSectionY(); sy++) {
+                    if (hostilesBySection.get(ChunkSectionPos.asLong(cx, sy, cz)) > 0) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Moves the hostile count of a section.
+     */
+    private void adjustSectionCount(long section, int delta) {
+        int count = hostilesBySection.get(section) + delta;
+        if (count > 0) {
+            hostilesBySection.put(section, count);
+        } else {
+            hostilesBySection.remove(section);
+        }
+    }
+
+    /**
+     * Adds or removes a guard from every section in its watch area.
+     */
+    private void updateSections(UUID guardId, WatchArea area, boolean add) {
+        for (int cx = area.chunkX() - WATCH_RADIUS_CHUNKS; cx <= area.chunkX() + WATCH_RADIUS_CHUNKS; cx++) {
+            for (int cz = area.chunkZ() - WATCH_RADIUS_CHUNKS; cz <= area.chunkZ() + WATCH_RADIUS_CHUNKS; cz++) {
+                for (int sy = area.minSectionY(); sy <= area.maxSectionY(); sy++) {
+                    long section = ChunkSectionPos.asLong(cx, sy, cz);
+                    Set<UUID> watchers = watchersBySection.get(section);
+
+                    if (add) {
+                        if (watchers == null) {
+                            watchers = new HashSet<>();
+                            watchersBySection.put(section, watchers);
+                        }
+                        watchers.add(guardId);
+                    } else if (watchers != null) {
+                        watchers.remove(guardId);
+                        if (watchers.isEmpty()) {
+                            watchersBySection.remove(section);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private static int sectionCount(WatchArea area) {
+        int side = 2 * WATCH_RADIUS_CHUNKS + 1;
+        return side * side * (area.maxSectionY() - area.minSectionY() + 1);
+    }
+
+    private static long sectionOf(Entity entity) {
+        return ChunkSectionPos.asLong(
+            entity.getBlockX() >> 4,
+            entity.getBlockY() >> 4,
+            entity.getBlockZ() >> 4);
+    }
+}
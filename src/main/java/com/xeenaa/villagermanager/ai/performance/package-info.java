@@ -24,15 +24,41 @@
  *   <li><b>Distant guards (&gt;64 blocks):</b> Minimal updates every 20 ticks (0.05x frequency)</li>
  *   <li><b>Very distant guards (&gt;128 blocks):</b> Suspended AI updates (0x frequency)</li>
  * </ul>
+ * <p>Player distance comes from a chunk-granularity
+ * {@link com.xeenaa.villagermanager.ai.performance.PlayerDistanceField}, rebuilt only when a
+ * player crosses a chunk boundary.</p>
+ * <p>An {@link com.xeenaa.villagermanager.ai.performance.AdaptiveLodController} scales
+ * these intervals and distance bands to hold a target MSPT; fights near players keep a
+ * floor cadence.</p>
+ * <p>The guard goal and target selectors are ticked at this cadence (vanilla's own goal
+ * ticks are skipped for guards); goals advance their countdowns by the elapsed ticks.</p>
+ * <p>Idle guards with no player within simulation distance go dormant and skip all guard
+ * ticking; on waking they catch up on regeneration, cooldowns and patrol targets at once.</p>
+ * <p>Guards are spread over phase buckets so guards on the same interval do not all
+ * update on the same tick.</p>
  * <p><b>Performance Impact:</b> Reduces AI overhead by 60-80% for large guard populations</p>
  *
  * <h3>2. Pathfinding Cache ({@link com.xeenaa.villagermanager.ai.performance.PathfindingCache})</h3>
  * <p>Caches expensive pathfinding calculations to avoid redundant computation:</p>
  * <ul>
  *   <li>Patrol position caching (5 second duration)</li>
- *   <li>Combat movement path caching (2 second duration)</li>
+ *   <li>Combat movement path caching (2 second duration); guards repath only when the
+ *       target drifts from the path end or progress stalls</li>
  *   <li>Automatic cache invalidation on position changes</li>
  * </ul>
+ * <p>Patrol paths are shared per guard post through the
+ * {@link com.xeenaa.villagermanager.ai.performance.PatrolPathCache}, invalidated by block
+ * changes along the path. Movement targets land on ground resolved by the
+ * {@link com.xeenaa.villagermanager.ai.performance.SurfaceResolver} (heightmap lookup plus
+ * a bounded local search). Retreat and high-ground targets come from the
+ * {@link com.xeenaa.villagermanager.ai.performance.DangerField}, a per-region grid of
+ * hostile distances with an index of elevated standable cells. Searches that failed
+ * recently are skipped with exponential backoff by the
+ * {@link com.xeenaa.villagermanager.ai.performance.PathFailureCache}, and destinations a
+ * guard gets stuck on ({@link com.xeenaa.villagermanager.ai.performance.StuckDetector})
+ * are blacklisted for a while. All AI block queries go through
+ * {@link com.xeenaa.villagermanager.ai.performance.GuardWorldAccess}, which reads only
+ * already-loaded chunks and treats the rest as unknown instead of loading them.</p>
  * <p><b>Performance Impact:</b> Reduces pathfinding overhead by 40-60%</p>
  *
  * <h3>3. Threat Detection Optimization</h3>
@@ -46,15 +72,56 @@
  * </ul>
  * <p><b>Performance Impact:</b> Reduces threat detection overhead by 50-70%</p>
  *
- * <h3>4. Guard Post Search Optimization</h3>
- * <p>Optimized guard post searching in {@link com.xeenaa.villagermanager.ai.GuardPatrolGoal}:</p>
+ * <h3>4. Guard Post Lookup ({@link com.xeenaa.villagermanager.ai.performance.GuardPostLocator})</h3>
+ * <p>Guard posts are resolved through the world's point of interest storage:</p>
  * <ul>
- *   <li>Spiral search pattern instead of triple nested loop</li>
- *   <li>Perimeter-only checking (not interior blocks)</li>
+ *   <li>Radius queries against the {@code GUARD_POST_POI} index (no block state probing)</li>
+ *   <li>Load-balanced assignment: least-assigned post in range, nearest on ties</li>
  *   <li>Cached search results (5 minute duration)</li>
- *   <li>Early exit on first match</li>
  * </ul>
- * <p><b>Performance Impact:</b> Reduces guard post search from ~230,000 block checks to ~800 checks</p>
+ *
+ * <h3>5. Shared Hostile Index ({@link com.xeenaa.villagermanager.ai.performance.HostileEntityIndex})</h3>
+ * <p>Per-world index of loaded hostile mobs used by every guard hostile query:</p>
+ * <ul>
+ *   <li>Hostiles tracked from entity load/unload events</li>
+ *   <li>Bucketed by chunk section once per tick (lazily, on first query)</li>
+ *   <li>Cylindrical range queries with a vertical clamp (ignores cave mobs far below)</li>
+ * </ul>
+ * <p><b>Performance Impact:</b> Replaces per-guard entity-section walks with lookups proportional to nearby hostiles</p>
+ *
+ * <h3>6. Line-of-Sight Cache ({@link com.xeenaa.villagermanager.ai.performance.LineOfSightCache})</h3>
+ * <p>World-level cache of visibility raycasts shared by all guards:</p>
+ * <ul>
+ *   <li>Keyed by observer and target eye block positions</li>
+ *   <li>Short TTL (10 ticks)</li>
+ *   <li>Invalidated by block changes in the chunk sections the ray crosses
+ *       ({@link com.xeenaa.villagermanager.ai.performance.BlockChangeTracker})</li>
+ * </ul>
+ * <p><b>Performance Impact:</b> Guards watching the same hostile from the same spot share one raycast</p>
+ *
+ * <h3>7. Event-Driven Threat Wake-Up ({@link com.xeenaa.villagermanager.ai.performance.ThreatWakeTracker})</h3>
+ * <p>Idle guards stop polling for threats while nothing hostile is around:</p>
+ * <ul>
+ *   <li>Hostiles loading, spawning or crossing into a chunk section near a guard wake it;
+ *       only sections within the 12-block vertical clamp of its eyes are watched</li>
+ *   <li>Woken guards scan immediately and keep their normal interval for 10 seconds</li>
+ *   <li>Otherwise a 30 second safety-net poll</li>
+ * </ul>
+ * <p><b>Performance Impact:</b> Quiet villages do almost no threat detection work</p>
+ *
+ * <h3>8. Guard Registry ({@link com.xeenaa.villagermanager.ai.performance.GuardRegistry})</h3>
+ * <p>Per-world spatial hash of loaded guards used for "guards near X" queries:</p>
+ * <ul>
+ *   <li>Maintained from load/unload events, profession changes and a per-tick move pass</li>
+ *   <li>Alert fan-out only visits guards, not every villager in range</li>
+ * </ul>
+ *
+ * <h3>9. Work Budget ({@link com.xeenaa.villagermanager.ai.performance.GuardWorkBudget})</h3>
+ * <p>Hard per-tick cap on threat scan and target search time (default 2ms):</p>
+ * <ul>
+ *   <li>Combat guards served first, idle guards by staleness (round-robin)</li>
+ *   <li>Work that does not fit rolls over to the next tick</li>
+ * </ul>
  *
  * <h2>Performance Monitoring</h2>
  * <p>Use {@link com.xeenaa.villagermanager.ai.performance.PerformanceMonitor} to track:</p>
@@ -67,13 +134,11 @@
  *
  * <h2>Usage Example</h2>
  * <pre>{@code
- * // In your AI goal's canStart() or tick() method:
- * ServerWorld world = (ServerWorld) guard.getWorld();
- * GuardAIScheduler scheduler = GuardAIScheduler.get(world);
- *
- * // Check if this guard should update AI this tick
- * if (!scheduler.shouldUpdateAI(guard)) {
- *     return; // Skip expensive AI operations
+ * // Guard goal selectors only tick when the scheduler says the guard is due,
+ * // so countdowns in canStart() or tick() advance by the elapsed ticks:
+ * if (cooldown > 0) {
+ *     cooldown = Math.max(0, cooldown - GuardAIScheduler.getElapsedTicks(guard));
+ *     return false;
  * }
  *
  * // Perform AI operations...
@@ -27,6 +27,9 @@ public class ModConfig {
     // Guard profession settings
     public GuardSettings guard_settings = new GuardSettings();
 
+    // Guard AI performance settings
+    public PerformanceSettings performance_settings = new PerformanceSettings();
+
     /**
      * Guard profession configuration
      */
@@ -54,6 +57,33 @@ public class ModConfig {
         public boolean rest_enabled = true;
     }
 
+    /**
+     * Guard AI performance tuning.
+     * These options trade a little precision for lower server tick cost.
+     */
+    public static class PerformanceSettings {
+        // Share one threat scan between guards standing close together
+        public boolean cluster_threat_scanning = true;
+
+        // Idle guards only scan for threats after a hostile comes near (with a slow safety-net poll)
+        public boolean event_driven_threat_wakeup = true;
+
+        // Score threat scans off the server thread (results apply one tick later; ignores cluster scanning)
+        public boolean async_threat_scoring = false;
+
+        // Per-tick time budget (microseconds) for guard threat scans and target searches; 0 disables
+        public int guard_ai_budget_micros = 2000;
+
+        // Target server tick time (ms) that guard LOD intervals and distances are scaled to hold; 0 disables
+        public double adaptive_lod_target_mspt = 40.0;
+
+        // Guards fighting within 32 blocks of a player update at least every N ticks, whatever the load
+        public int combat_floor_interval = 1;
+
+        // Log a guard AI performance report (scan rates, cache hit rates) every 5 minutes per dimension
+        public boolean log_performance_report = false;
+    }
+
     // Default configuration
     private ModConfig() {
         // Default blacklist - exclude nitwit by default
@@ -176,5 +206,15 @@ public class ModConfig {
         return guard_settings != null && guard_settings.enabled;
     }
 
+    /**
+     * Get guard AI performance settings
+     */
+    public PerformanceSettings getPerformanceSettings() {
+        if (performance_settings == null) {
+            performance_settings = new PerformanceSettings();
+        }
+        return performance_settings;
+    }
+
     // Equipment check method removed - replaced with ranking system
 }
\ No newline at end of file
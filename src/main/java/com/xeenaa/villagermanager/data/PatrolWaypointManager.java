@@ -0,0 +1,425 @@
+package com.xeenaa.villagermanager.data;
+
+import com.xeenaa.villagermanager.XeenaaVillagerManager;
+import com.xeenaa.villagermanager.ai.performance.GuardWorldAccess;
+import com.xeenaa.villagermanager.ai.performance.PatrolPathCache;
+import com.xeenaa.villagermanager.ai.performance.SurfaceResolver;
+import com.xeenaa.villagermanager.block.GuardPostBlock;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayFIFOQueue;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongList;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import net.minecraft.block.BlockState;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.nbt.NbtElement;
+import net.minecraft.nbt.NbtList;
+import net.minecraft.registry.RegistryWrapper;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.function.BooleanBiFunction;
+import net.minecraft.util.math.Direction;
+import net.minecraft.util.shape.VoxelShape;
+import net.minecraft.util.shape.VoxelShapes;
+import net.minecraft.world.PersistentState;
+import net.minecraft.world.World;
+
+import java.util.Random;
+import java.util.function.LongConsumer;
+
+/**
+ * Persists a walkable patrol waypoint set for every guard post.
+ *
+ * <p>When a post is placed (or first patrolled, for posts placed earlier), a flood fill over standable blocks runs out from
+ * the post to {@link #WAYPOINT_RADIUS}, so every waypoint is reachable on foot from the
+ * post. One waypoint is kept per {@link PatrolPathCache#CELL_SIZE}-block cell. Patrol
+ * target selection is then a random pick from the set.</p>
+ *
+ * <p>Block changes that leave collision shape, solidity and fluids alone (crops growing,
+ * furnaces lighting, redstone) are ignored. Other changes near a post update the
+ * waypoints of the changed column and the four columns beside it in place: a waypoint
+ * that can no longer be stood on is replaced by another spot in its column or dropped,
+ * and a cell without a waypoint gains one when a spot there becomes reachable from a
+ * neighbouring column. Picked waypoints are also re-checked before use, which covers
+ * changes made while the area was unloaded; a set that lost waypoints that way is
+ * rebuilt on next use, at most once per {@link #REBUILD_COOLDOWN} ticks.</p>
+ *
+ * @since 1.0.0
+ */
+public class PatrolWaypointManager extends PersistentState {
+    private static final String DATA_NAME = "xeenaa_patrol_waypoints";
+
+    /**
+     * How far (in blocks, horizontally) waypoints extend from their post.
+     */
+    public static final int WAYPOINT_RADIUS = 16;
+
+    private static final int MAX_STEP_UP = 1;
+    private static final int MAX_DROP = 3;
+    private static final int REBUILD_COOLDOWN = 200; // 10 seconds
+    private static final int PICK_ATTEMPTS = 4;
+
+    private final Long2ObjectMap<PostWaypoints> posts = new Long2ObjectOpenHashMap<>();
+
+    // Transient index: chunk column -> posts whose waypoint area overlaps it
+    private final Long2ObjectMap<LongList> postsByChunk = new Long2ObjectOpenHashMap<>();
+
+    private static final PersistentState.Type<PatrolWaypointManager> type = new PersistentState.Type<>(
+        PatrolWaypointManager::new,
+        PatrolWaypointManager::fromNbt,
+        null
+    );
+
+    /**
+     * Gets the patrol waypoint manager for a world
+     */
+    public static PatrolWaypointManager get(ServerWorld world) {
+        return world.getPersistentStateManager().getOrCreate(type, DATA_NAME);
+    }
+
+    /**
+     * Creates a new patrol waypoint manager
+     */
+    public PatrolWaypointManager() {
+        super();
+    }
+
+    /**
+     * Loads patrol waypoints from NBT
+     */
+    public static PatrolWaypointManager fromNbt(NbtCompound nbt, RegistryWrapper.WrapperLookup registries) {
+        PatrolWaypointManager manager = new PatrolWaypointManager();
+
+        NbtList postsNbt = nbt.getList("Posts", NbtElement.COMPOUND_TYPE);
+        for (int i = 0; i < postsNbt.size(); i++) {
+            NbtCompound postNbt = postsNbt.getCompound(i);
+            long post = postNbt.getLong("Pos");
+            manager.addPost(post, new PostWaypoints(new LongArrayList(postNbt.getLongArray("Waypoints"))));
+        }
+
+        XeenaaVillagerManager.LOGGER.info("Loaded patrol waypoints for {} guard posts", manager.posts.size());
+        return manager;
+    }
+
+    @Override
+    public NbtCompound writeNbt(NbtCompound nbt, RegistryWrapper.WrapperLookup registries) {
+        NbtList postsNbt = new NbtList();
+
+        for (Long2ObjectMap.Entry<PostWaypoints> entry : posts.long2ObjectEntrySet()) {
+            NbtCompound postNbt = new NbtCompound();
+            postNbt.putLong("Pos", entry.getLongKey());
+            postNbt.putLongArray("Waypoints", entry.getValue().waypoints.toLongArray());
+            postsNbt.add(postNbt);
+        }
+
+        nbt.put("Posts", postsNbt);
+        return nbt;
+    }
+
+    /**
+     * Picks a random patrol waypoint of a guard post, building the post's waypoint set on
+     * first use.
+     *
+     * @param world The server world
+     * @param post The guard post position
+     * @param from The guard's position
+     * @param minDistance Minimum distance from the guard (avoids micro-movements)
+     * @param random Random source
+     * @return A reachable, standable waypoint, or null if none was found
+     */
+    public BlockPos pickWaypoint(ServerWorld world, BlockPos post, BlockPos from, double minDistance, Random random) {
+        int currentTick = world.getServer().getTicks();
+        PostWaypoints waypoints = posts.get(post.asLong());
+
+        if (waypoints == null || (waypoints.stale && currentTick - waypoints.lastBuildTick >= REBUILD_COOLDOWN)) {
+            waypoints = build(world, post);
+            waypoints.lastBuildTick = currentTick;
+            removePost(post.asLong());
+            addPost(post.asLong(), waypoints);
+            markDirty();
+        }
+
+        LongArrayList list = waypoints.waypoints;
+        for (int attempt = 0; attempt < PICK_ATTEMPTS && !list.isEmpty(); attempt++) {
+            int index = random.nextInt(list.size());
+            BlockPos candidate = BlockPos.fromLong(list.getLong(index));
+
+            // Unknown (unloaded) is not the same as unstandable: keep it for later
+            if (!GuardWorldAccess.isLoaded(world, candidate)) {
+                continue;
+            }
+
+            // Re-check in case the terrain changed while the area was unloaded
+            if (!SurfaceResolver.isStandable(world, candidate)) {
+                removeAt(list, index);
+                waypoints.stale = true;
+                markDirty();
+                continue;
+            }
+
+            if (candidate.getSquaredDistance(from) >= minDistance * minDistance) {
+                return candidate;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Updates waypoints near a changed block. Called for every block change in the world.
+     *
+     * @param world The server world
+     * @param pos The changed position
+     * @param oldState The previous block state
+     * @param newState The new block state
+     */
+    public void onBlockChanged(ServerWorld world, BlockPos pos, BlockState oldState, BlockState newState) {
+        // Newly placed post: compute its waypoints up front
+        if (newState.getBlock() instanceof GuardPostBlock && !posts.containsKey(pos.asLong())) {
+            PostWaypoints waypoints = build(world, pos);
+            waypoints.lastBuildTick = world.getServer().getTicks();
+            addPost(pos.asLong(), waypoints);
+            markDirty();
+            return;
+        }
+
+        LongList candidates = postsByChunk.get(ChunkPos.toLong(pos.getX() >> 4, pos.getZ() >> 4));
+        if (candidates == null) {
+            return;
+        }
+
+        boolean affectsStanding = affectsStanding(world, pos, oldState, newState);
+
+        // Copy: removing a destroyed post edits the index
+        for (long post : candidates.toLongArray()) {
+            PostWaypoints waypoints = posts.get(post);
+            if (waypoints == null) {
+                continue;
+            }
+
+            BlockPos postPos = BlockPos.fromLong(post);
+            if (postPos.equals(pos) && !(newState.getBlock() instanceof GuardPostBlock)) {
+                removePost(post);
+                markDirty();
+                continue;
+            }
+
+            if (!affectsStanding
+                    || Math.abs(pos.getX() - postPos.getX()) > WAYPOINT_RADIUS + 1
+                    || Math.abs(pos.getZ() - postPos.getZ()) > WAYPOINT_RADIUS + 1) {
+                continue;
+            }
+
+            // Standing spots change in this column; steps into and out of it in the ones beside it
+            boolean changed = updateColumn(world, postPos, waypoints.waypoints, pos.getX(), pos.getZ(), pos.getY());
+            for (Direction direction : Direction.Type.HORIZONTAL) {
+                changed |= updateColumn(world, postPos, waypoints.waypoints,
+                    pos.getX() + direction.getOffsetX(), pos.getZ() + direction.getOffsetZ(), pos.getY());
+            }
+            if (changed) {
+                markDirty();
+            }
+        }
+    }
+
+    /**
+     * Gets the number of guard posts with a waypoint set.
+     */
+    public int getPostCount() {
+        return posts.size();
+    }
+
+    /**
+     * Flood fills standable blocks out from the post and keeps one waypoint per cell.
+     */
+    private static PostWaypoints build(ServerWorld world, BlockPos post) {
+        LongArrayList waypoints = new LongArrayList();
+        LongSet visitedColumns = new LongOpenHashSet();
+        LongSet usedCells = new LongOpenHashSet();
+        LongArrayFIFOQueue queue = new LongArrayFIFOQueue();
+
+        // Guards stand next to the post, not on it
+        for (Direction direction : Direction.Type.HORIZONTAL) {
+            BlockPos start = findStandable(world, post.offset(direction));
+            if (start != null && visitedColumns.add(ChunkPos.toLong(start.getX(), start.getZ()))) {
+                queue.enqueue(start.asLong());
+            }
+        }
+
+        while (!queue.isEmpty()) {
+            BlockPos pos = BlockPos.fromLong(queue.dequeueLong());
+
+            if (usedCells.add(cellOf(pos.getX(), pos.getZ()))) {
+                waypoints.add(pos.asLong());
+            }
+
+            for (Direction direction : Direction.Type.HORIZONTAL) {
+                BlockPos next = pos.offset(direction);
+                if (Math.abs(next.getX() - post.getX()) > WAYPOINT_RADIUS
+                        || Math.abs(next.getZ() - post.getZ()) > WAYPOINT_RADIUS
+                        || !visitedColumns.add(ChunkPos.toLong(next.getX(), next.getZ()))) {
+                    continue;
+                }
+
+                BlockPos standable = findStandable(world, next);
+                if (standable != null) {
+                    queue.enqueue(standable.asLong());
+                } else {
+                    // Blocked here; another neighbour may still reach this column
+                    visitedColumns.remove(ChunkPos.toLong(next.getX(), next.getZ()));
+                }
+            }
+        }
+
+        return new PostWaypoints(waypoints);
+    }
+
+    /**
+     * Checks whether a block change can change where mobs stand: its collision shape,
+     * solidity or fluid changed.
+     */
+    private static boolean affectsStanding(ServerWorld world, BlockPos pos, BlockState oldState, BlockState newState) {
+        if (oldState.getFluidState().isEmpty() != newState.getFluidState().isEmpty()
+                || oldState.isSolidBlock(world, pos) != newState.isSolidBlock(world, pos)) {
+            return true;
+        }
+        VoxelShape oldShape = oldState.getCollisionShape(world, pos);
+        VoxelShape newShape = newState.getCollisionShape(world, pos);
+        return oldShape != newShape && VoxelShapes.matchesAnywhere(oldShape, newShape, BooleanBiFunction.NOT_SAME);
+    }
+
+    /**
+     * Re-checks one column of a post's waypoint area after a nearby block change.
+     * Keeps the cell's waypoint if it is still valid, otherwise replaces or drops it, and
+     * adds a waypoint to an empty cell when the column has a spot reachable from a
+     * neighbouring column.
+     *
+     * @return true if the waypoint list changed
+     */
+    private static boolean updateColumn(ServerWorld world, BlockPos post, LongArrayList list, int x, int z, int nearY) {
+        if (Math.abs(x - post.getX()) > WAYPOINT_RADIUS || Math.abs(z - post.getZ()) > WAYPOINT_RADIUS) {
+            return false;
+        }
+
+        long cell = cellOf(x, z);
+        int index = -1;
+        for (int i = 0; i < list.size(); i++) {
+            BlockPos waypoint = BlockPos.fromLong(list.getLong(i));
+            if (cellOf(waypoint.getX(), waypoint.getZ()) == cell) {
+                index = i;
+                break;
+            }
+        }
+
+        int searchY = nearY;
+        boolean changed = false;
+        if (index >= 0) {
+            BlockPos waypoint = BlockPos.fromLong(list.getLong(index));
+            boolean inColumn = waypoint.getX() == x && waypoint.getZ() == z;
+            if (!inColumn || (SurfaceResolver.isStandable(world, waypoint) && isReachableFromNeighbour(world, waypoint))) {
+                return false; // The cell's waypoint is elsewhere or still fine
+            }
+            removeAt(list, index);
+            searchY = waypoint.getY();
+            changed = true;
+        }
+
+        // Look for a spot around the affected height that can be walked onto from beside it
+        BlockPos candidate = findStandable(world, new BlockPos(x, searchY + 1, z));
+        if (candidate != null && isReachableFromNeighbour(world, candidate)) {
+            list.add(candidate.asLong());
+            return true;
+        }
+        return changed;
+    }
+
+    /**
+     * Checks whether a mob standing in a neighbouring column could step up or drop onto a spot.
+     */
+    private static boolean isReachableFromNeighbour(World world, BlockPos pos) {
+        for (Direction direction : Direction.Type.HORIZONTAL) {
+            // findStandable covers one block up to three down from its start: neighbours
+            // between one block below (step up) and three above (drop) the spot
+            if (findStandable(world, pos.offset(direction).up(MAX_DROP - MAX_STEP_UP)) != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long cellOf(int x, int z) {
+        return ChunkPos.toLong(Math.floorDiv(x, PatrolPathCache.CELL_SIZE), Math.floorDiv(z, PatrolPathCache.CELL_SIZE));
+    }
+
+    /**
+     * Finds where a mob can step to in a column, from one block up to a short drop down.
+     */
+    private static BlockPos findStandable(World world, BlockPos pos) {
+        for (int dy = MAX_STEP_UP; dy >= -MAX_DROP; dy--) {
+            BlockPos candidate = pos.up(dy);
+            if (SurfaceResolver.isStandable(world, candidate)) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    private static void removeAt(LongArrayList list, int index) {
+        // Order does not matter; swap with the last element
+        list.set(index, list.getLong(list.size() - 1));
+        list.removeLong(list.size() - 1);
+    }
+
+    private void addPost(long post, PostWaypoints waypoints) {
+        posts.put(post, waypoints);
+        forEachCoveredChunk(post, chunk -> {
+            LongList list = postsByChunk.get(chunk);
+            if (list == null) {
+                list = new LongArrayList(2);
+                postsByChunk.put(chunk, list);
+            }
+            list.add(post);
+        });
+    }
+
+    private void removePost(long post) {
+        if (posts.remove(post) == null) {
+            return;
+        }
+        forEachCoveredChunk(post, chunk -> {
+            LongList list = postsByChunk.get(chunk);
+            if (list != null) {
+                list.rem(post);
+                if (list.isEmpty()) {
+                    postsByChunk.remove(chunk);
+                }
+            }
+        });
+    }
+
+    private static void forEachCoveredChunk(long post, LongConsumer consumer) {
+        BlockPos pos = BlockPos.fromLong(post);
+        int reach = WAYPOINT_RADIUS + 1;
+        for (int cx = (pos.getX() - reach) >> 4; cx <= (pos.getX() + reach) >> 4; cx++) {
+            for (int cz = (pos.getZ() - reach) >> 4; cz <= (pos.getZ() + reach) >> 4; cz++) {
+                consumer.accept(ChunkPos.toLong(cx, cz));
+            }
+        }
+    }
+
+    /**
+     * Waypoint set of one guard post.
+     */
+    private static class PostWaypoints {
+        final LongArrayList waypoints;
+        boolean stale;
+        int lastBuildTick;
+
+        PostWaypoints(LongArrayList waypoints) {
+            this.waypoints = waypoints;
+        }
+    }
+}
@@ -1,13 +1,16 @@
 package com.xeenaa.villagermanager.data.rank.ability;
 
+import com.xeenaa.villagermanager.ai.performance.HostileEntityIndex;
+import com.xeenaa.villagermanager.ai.performance.LineOfSightCache;
 import com.xeenaa.villagermanager.util.CombatEffects;
 import net.minecraft.entity.LivingEntity;
+import net.minecraft.entity.mob.HostileEntity;
 import net.minecraft.entity.passive.VillagerEntity;
 import net.minecraft.entity.projectile.ArrowEntity;
 import net.minecraft.item.ItemStack;
 import net.minecraft.item.Items;
+import net.minecraft.server.world.ServerWorld;
 import net.minecraft.sound.SoundEvents;
-import net.minecraft.util.math.Box;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import java.util.List;
@@ -38,15 +41,18 @@ public class DoubleShotAbility extends SpecialAbility {
             return;
         }
 
-        // Find a second target nearby
-        Box searchBox = Box.of(guard.getPos(), DETECTION_RANGE * 2, DETECTION_RANGE * 2, DETECTION_RANGE * 2);
-        List<LivingEntity> nearbyEnemies = guard.getWorld().getEntitiesByClass(
-            LivingEntity.class, searchBox,
-            entity -> entity != guard &&
-                     entity != primaryTarget &&
-                     entity.isAlive() &&
+        if (!(guard.getWorld() instanceof ServerWorld serverWorld)) {
+            return;
+        }
+
+        // Find a second target nearby from the shared per-tick hostile index
+        List<HostileEntity> nearbyEnemies = HostileEntityIndex.get(serverWorld).getHostilesInRange(
+            guard.getPos(),
+            DETECTION_RANGE,
+            HostileEntityIndex.DEFAULT_VERTICAL_RANGE,
+            entity -> entity != primaryTarget &&
                      guard.canTarget(entity) &&
-                     guard.canSee(entity)
+                     LineOfSightCache.get(serverWorld).canSee(guard, entity)
         );
 
         LOGGER.info("[DOUBLE SHOT] Found {} potential secondary targets in range", nearbyEnemies.size());
@@ -55,7 +61,7 @@ public class DoubleShotAbility extends SpecialAbility {
         double closestDistance = DETECTION_RANGE;
 
         // Find the closest valid secondary target
-        for (LivingEntity entity : nearbyEnemies) {
+        for (HostileEntity entity : nearbyEnemies) {
             double distance = guard.squaredDistanceTo(entity);
             if (Math.sqrt(distance) < closestDistance) {
                 secondaryTarget = entity;
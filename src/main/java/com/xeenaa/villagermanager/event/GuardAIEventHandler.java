@@ -0,0 +1,156 @@
+package com.xeenaa.villagermanager.event;
+
+import com.xeenaa.villagermanager.XeenaaVillagerManager;
+import com.xeenaa.villagermanager.ai.performance.AdaptiveLodController;
+import com.xeenaa.villagermanager.ai.performance.BlockChangeTracker;
+import com.xeenaa.villagermanager.ai.performance.DangerField;
+import com.xeenaa.villagermanager.ai.performance.FormationManager;
+import com.xeenaa.villagermanager.ai.performance.GuardAIScheduler;
+import com.xeenaa.villagermanager.ai.performance.GuardPostLocator;
+import com.xeenaa.villagermanager.ai.performance.GuardRegistry;
+import com.xeenaa.villagermanager.ai.performance.GuardWorkBudget;
+import com.xeenaa.villagermanager.ai.performance.HostileEntityIndex;
+import com.xeenaa.villagermanager.ai.performance.LineOfSightCache;
+import com.xeenaa.villagermanager.ai.performance.PathFailureCache;
+import com.xeenaa.villagermanager.ai.performance.PathfindingCache;
+import com.xeenaa.villagermanager.ai.performance.PatrolPathCache;
+import com.xeenaa.villagermanager.ai.performance.PerformanceMonitor;
+import com.xeenaa.villagermanager.ai.performance.PlayerDistanceField;
+import com.xeenaa.villagermanager.ai.performance.ThreatWakeTracker;
+import com.xeenaa.villagermanager.threat.ThreatDetectionManager;
+import com.xeenaa.villagermanager.threat.ThreatGraph;
+import net.fabricmc.fabric.api.entity.event.v1.ServerLivingEntityEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerEntityEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.minecraft.entity.LivingEntity;
+import net.minecraft.entity.passive.VillagerEntity;
+import net.minecraft.server.world.ServerWorld;
+
+/**
+ * Wires world and entity lifecycle events into the shared guard AI services.
+ *
+ * <p>Per-world services such as the {@link HostileEntityIndex} are maintained from
+ * entity load/unload events rather than from per-guard entity queries.</p>
+ *
+ * @since 1.0.0
+ */
+public class GuardAIEventHandler {
+    private static boolean initialized = false;
+
+    /**
+     * Initializes the guard AI event handler system
+     */
+    public static void initialize() {
+        if (initialized) {
+            return;
+        }
+
+        registerEventHandlers();
+        initialized = true;
+
+        XeenaaVillagerManager.LOGGER.info("Guard AI event handler system initialized");
+    }
+
+    /**
+     * Registers all lifecycle event handlers for guard AI services
+     */
+    private static void registerEventHandlers() {
+        // Track hostile mobs, villagers and guards as they enter and leave the world
+        ServerEntityEvents.ENTITY_LOAD.register((entity, world) -> {
+            HostileEntityIndex.get(world).onEntityLoad(entity);
+            ThreatWakeTracker.get(world).onEntityLoad(entity);
+            ThreatGraph.get(world).onEntityLoad(entity);
+            GuardRegistry.get(world).onEntityLoad(entity);
+            GuardAIScheduler.get(world).onEntityLoad(entity);
+        });
+
+        ServerEntityEvents.ENTITY_UNLOAD.register((entity, world) -> {
+            HostileEntityIndex.get(world).onEntityUnload(entity);
+            ThreatWakeTracker.get(world).onEntityUnload(entity);
+            ThreatGraph.get(world).onEntityUnload(entity);
+            GuardRegistry.get(world).onEntityUnload(entity);
+            GuardAIScheduler.get(world).onEntityUnload(entity);
+
+            // Guards leaving the world stop watching for hostiles and drop cached paths
+            if (entity instanceof VillagerEntity villager) {
+                ThreatWakeTracker.get(world).unwatch(villager.getUuid());
+                PathfindingCache.get(world).invalidate(villager.getUuid());
+                GuardPostLocator.get(world).release(villager.getUuid());
+                FormationManager.get(world).leave(villager.getUuid());
+                PathFailureCache.get(world).forget(villager.getUuid());
+                ThreatDetectionManager.get(world).forgetGuard(villager);
+            }
+
+            // Unloaded mobs can no longer be resolved, so drop them from threat memory
+            if (entity instanceof LivingEntity living) {
+                ThreatDetectionManager.get(world).forgetThreat(living);
+            }
+        });
+
+        // Dead guards free their scheduler slot right away instead of after the death animation
+        ServerLivingEntityEvents.AFTER_DEATH.register((entity, damageSource) -> {
+            if (entity instanceof VillagerEntity villager && entity.getWorld() instanceof ServerWorld world) {
+                GuardAIScheduler.get(world).removeGuard(villager.getUuid());
+                PathfindingCache.get(world).invalidate(villager.getUuid());
+                GuardPostLocator.get(world).release(villager.getUuid());
+                FormationManager.get(world).leave(villager.getUuid());
+                PathFailureCache.get(world).forget(villager.getUuid());
+                ThreatDetectionManager.get(world).forgetGuard(villager);
+            }
+        });
+
+        // Apply threats scored off-thread during the previous tick
+        ServerTickEvents.START_WORLD_TICK.register(world -> {
+            ThreatDetectionManager.get(world).applyAsyncScoring();
+        });
+
+        ServerTickEvents.END_WORLD_TICK.register(world -> {
+            // Rescale guard LOD to hold the target MSPT
+            AdaptiveLodController.get(world).tick();
+
+            // Keep the guard spatial hash current as guards walk around
+            GuardRegistry.get(world).tick();
+
+            // Wake idle guards when hostiles move into their watch area
+            ThreatWakeTracker.get(world).tick();
+
+            // Move hostile counts in the danger fields of guarded regions
+            DangerField.get(world).tick();
+
+            // Snapshot this tick's scan requests for off-thread scoring
+            ThreatDetectionManager.get(world).captureAsyncScoring();
+
+            // Periodic performance report (cache hit rates and custom metrics; off unless configured)
+            PerformanceMonitor.get(world).tick();
+        });
+
+        // Clean up per-world services on server stop
+        ServerLifecycleEvents.SERVER_STOPPING.register(server -> {
+            HostileEntityIndex.clearAll();
+            LineOfSightCache.clearAll();
+            BlockChangeTracker.clearAll();
+            ThreatWakeTracker.clearAll();
+            ThreatGraph.clearAll();
+            GuardRegistry.clearAll();
+            GuardWorkBudget.clearAll();
+            PlayerDistanceField.clearAll();
+            GuardAIScheduler.clearAll();
+            PathfindingCache.clearAll();
+            PatrolPathCache.clearAll();
+            AdaptiveLodController.clearAll();
+            GuardPostLocator.clearAll();
+            FormationManager.clearAll();
+            PerformanceMonitor.clearAll();
+            DangerField.clearAll();
+            PathFailureCache.clearAll();
+        });
+    }
+
+    /**
+     * Checks if the event handler is initialized
+     */
+    public static boolean isInitialized() {
+        return initialized;
+    }
+}
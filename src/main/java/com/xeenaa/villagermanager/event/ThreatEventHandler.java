@@ -153,9 +153,10 @@ public class ThreatEventHandler {
             ServerWorld world = (ServerWorld) entity.getWorld();
             ThreatDetectionManager threatManager = ThreatDetectionManager.get(world);
 
-            // The threat manager will automatically clean up dead entities
-            // This is just for immediate cleanup
+            // Threat memory expires entries on its own; dropping the dead entity here
+            // keeps it out of cached threat lookups immediately
             if (threatManager.isThreat(entity)) {
+                threatManager.forgetThreat(entity);
                 XeenaaVillagerManager.LOGGER.debug("Threat entity died: {}",
                     entity.getType().getTranslationKey());
             }
@@ -0,0 +1,59 @@
+package com.xeenaa.villagermanager.mixin;
+
+import com.llamalad7.mixinextras.injector.WrapWithCondition;
+import com.xeenaa.villagermanager.ai.performance.GuardRegistry;
+import net.minecraft.entity.ai.goal.GoalSelector;
+import net.minecraft.entity.mob.MobEntity;
+import net.minecraft.entity.passive.VillagerEntity;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Unique;
+import org.spongepowered.asm.mixin.injection.At;
+
+/**
+ * Mixin to keep vanilla from ticking guard goal selectors.
+ *
+ * <p>{@code MobEntity.tickNewAi} ticks the goal and target selectors of every mob each
+ * tick. Guard goals are ticked by {@code VillagerAIMixin} instead, gated on the
+ * {@link com.xeenaa.villagermanager.ai.performance.GuardAIScheduler}, so the vanilla
+ * ticks are skipped for guards. Navigation and movement controls still tick every tick.</p>
+ *
+ * <p>The calls are wrapped with MixinExtras conditions (bundled with Fabric Loader) rather
+ * than redirected, so other mods can wrap or redirect the same calls.</p>
+ *
+ * @since 1.0.0
+ */
+@Mixin(MobEntity.class)
+public class MobEntityGoalTickMixin {
+
+    /**
+     * Skips the full goal selector tick for guards
+     *
+     * @param selector The goal or target selector
+     * @return true if the vanilla tick should run
+     */
+    @WrapWithCondition(method = "tickNewAi", at = @At(value = "INVOKE",
+        target = "Lnet/minecraft/entity/ai/goal/GoalSelector;tick()V"))
+    private boolean tickSelector(GoalSelector selector) {
+        return !isScheduledGuard();
+    }
+
+    /**
+     * Skips the in-between running goal tick for guards
+     *
+     * @param selector The goal or target selector
+     * @param tickAll Whether goals that do not need every tick are ticked too
+     * @return true if the vanilla tick should run
+     */
+    @WrapWithCondition(method = "tickNewAi", at = @At(value = "INVOKE",
+        target = "Lnet/minecraft/entity/ai/goal/GoalSelector;tickGoals(Z)V"))
+    private boolean tickSelectorGoals(GoalSelector selector, boolean tickAll) {
+        return !isScheduledGuard();
+    }
+
+    @Unique
+    private boolean isScheduledGuard() {
+        return (Object) this instanceof VillagerEntity villager
+            && !villager.getWorld().isClient()
+            && GuardRegistry.isGuard(villager);
+    }
+}
@@ -0,0 +1,39 @@
+package com.xeenaa.villagermanager.mixin;
+
+import com.xeenaa.villagermanager.ai.performance.BlockChangeTracker;
+import com.xeenaa.villagermanager.data.PatrolWaypointManager;
+import net.minecraft.block.BlockState;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+/**
+ * Mixin to report block changes to the guard AI caches.
+ *
+ * <p>Guard AI caches (line of sight, paths, waypoints) are invalidated per chunk section
+ * through the {@link BlockChangeTracker} whenever a block state changes. Persisted patrol
+ * waypoints near the change are updated through the {@link PatrolWaypointManager}.</p>
+ *
+ * @since 1.0.0
+ */
+@Mixin(ServerWorld.class)
+public class ServerWorldBlockChangeMixin {
+
+    /**
+     * Records a block change for cache invalidation
+     *
+     * @param pos The changed block position
+     * @param oldBlock The previous block state
+     * @param newBlock The new block state
+     * @param ci Callback info for the onBlockChanged method
+     */
+    @Inject(method = "onBlockChanged", at = @At("HEAD"))
+    private void onBlockChanged(BlockPos pos, BlockState oldBlock, BlockState newBlock, CallbackInfo ci) {
+        ServerWorld world = (ServerWorld) (Object) this;
+        BlockChangeTracker.get(world).onBlockChanged(pos, oldBlock, newBlock);
+        PatrolWaypointManager.get(world).onBlockChanged(world, pos, oldBlock, newBlock);
+    }
+}
@@ -7,6 +7,8 @@ import com.xeenaa.villagermanager.ai.GuardMeleeAttackGoal;
 import com.xeenaa.villagermanager.ai.GuardPatrolGoal;
 import com.xeenaa.villagermanager.ai.GuardRangedAttackGoal;
 import com.xeenaa.villagermanager.ai.GuardSpecialAbilities;
+import com.xeenaa.villagermanager.ai.performance.GuardAIScheduler;
+import com.xeenaa.villagermanager.ai.performance.GuardRegistry;
 import com.xeenaa.villagermanager.data.GuardData;
 import com.xeenaa.villagermanager.data.rank.GuardRankData;
 import com.xeenaa.villagermanager.profession.ModProfessions;
@@ -26,6 +28,7 @@ import net.minecraft.item.BowItem;
 import net.minecraft.item.ItemStack;
 import net.minecraft.item.Items;
 import net.minecraft.item.SwordItem;
+import net.minecraft.server.world.ServerWorld;
 import net.minecraft.village.VillagerData;
 import net.minecraft.world.World;
 import org.spongepowered.asm.mixin.Mixin;
@@ -61,6 +64,9 @@ public abstract class VillagerAIMixin extends MerchantEntity implements com.xeen
     @Unique
     private static final int REGENERATION_TICK_INTERVAL = 20; // Heal every 1 second
 
+    @Unique
+    private static final int DORMANT_PATROL_RESAMPLE_TICKS = 200; // Pick a new patrol target after 10 seconds dormant
+
     protected VillagerAIMixin(EntityType<? extends MerchantEntity> entityType, World world) {
         super(entityType, world);
     }
@@ -75,6 +81,11 @@ public abstract class VillagerAIMixin extends MerchantEntity implements com.xeen
 
         // Only modify AI goals on the server side
         if (!this.getWorld().isClient()) {
+            // Keep the guard registry in sync with the profession
+            if (this.getWorld() instanceof ServerWorld serverWorld) {
+                GuardRegistry.get(serverWorld).onProfessionChanged(self);
+            }
+
             if (villagerData.getProfession() == ModProfessions.GUARD && !guardGoalsInitialized) {
                 System.out.println("GUARD AI PROFESSION: Profession changed to Guard for " + self.getUuid());
                 initializeGuardGoals();
@@ -100,6 +111,11 @@ public abstract class VillagerAIMixin extends MerchantEntity implements com.xeen
 
                 // Reset attributes to normal
                 resetVillagerAttributes();
+
+                // Free the guard's scheduler slot
+                if (this.getWorld() instanceof ServerWorld serverWorld) {
+                    GuardAIScheduler.get(serverWorld).removeGuard(self.getUuid());
+                }
             }
         }
     }
@@ -311,6 +327,8 @@ public abstract class VillagerAIMixin extends MerchantEntity implements com.xeen
     /**
      * Skip villager Brain AI for guards, use GoalSelector instead.
      * Cancels VillagerEntity.mobTick() but still needs MobEntity.mobTick() for movement.
+     * Goal selectors only tick when the {@link GuardAIScheduler} says the guard is due;
+     * goals advance their countdowns by {@link GuardAIScheduler#getElapsedTicks(VillagerEntity)}.
      */
     @Inject(method = "mobTick", at = @At("HEAD"), cancellable = true)
     private void guardMobTick(CallbackInfo ci) {
@@ -321,6 +339,13 @@ public abstract class VillagerAIMixin extends MerchantEntity implements com.xeen
             this.getVillagerData().getProfession() == ModProfessions.GUARD &&
             guardGoalsInitialized) {
 
+            // Dormant guards only need the Brain AI cancelled
+            if (this.getWorld() instanceof ServerWorld serverWorld &&
+                GuardAIScheduler.get(serverWorld).isDormant(self)) {
+                ci.cancel();
+                return;
+            }
+
             // Debug: Log goal selector tick every 100 ticks (5 seconds)
             if (self.age % 100 == 0) {
                 System.out.println("GUARD MOB TICK: Ticking goal selector for guard " + self.getUuid());
@@ -336,14 +361,17 @@ public abstract class VillagerAIMixin extends MerchantEntity implements com.xeen
             // This skips VillagerEntity's Brain-based logic
             super.mobTick();
 
-            // Manually tick goal selector (replaces Brain AI)
-            this.getWorld().getProfiler().push("guardGoalSelector");
-            this.goalSelector.tick();
-            this.getWorld().getProfiler().pop();
+            // Manually tick goal selector (replaces Brain AI) at the guard's LOD cadence
+            if (this.getWorld() instanceof ServerWorld serverWorld &&
+                GuardAIScheduler.get(serverWorld).shouldUpdateAI(self)) {
+                this.getWorld().getProfiler().push("guardGoalSelector");
+                this.goalSelector.tick();
+                this.getWorld().getProfiler().pop();
 
-            this.getWorld().getProfiler().push("guardTargetSelector");
-            this.targetSelector.tick();
-            this.getWorld().getProfiler().pop();
+                this.getWorld().getProfiler().push("guardTargetSelector");
+                this.targetSelector.tick();
+                this.getWorld().getProfiler().pop();
+            }
 
             // Cancel VillagerEntity.mobTick() (Brain AI)
             ci.cancel();
@@ -382,6 +410,22 @@ public abstract class VillagerAIMixin extends MerchantEntity implements com.xeen
             System.out.println("GUARD AI TICK: Initialization complete for " + self.getUuid());
         }
 
+        // Dormant guards (idle, no player within simulation distance) skip all guard ticking;
+        // on waking they catch up on what they missed in one go
+        if (guardGoalsInitialized &&
+            this.getVillagerData().getProfession() == ModProfessions.GUARD &&
+            this.getWorld() instanceof ServerWorld serverWorld) {
+            GuardAIScheduler scheduler = GuardAIScheduler.get(serverWorld);
+            if (scheduler.isDormant(self)) {
+                return;
+            }
+
+            int catchUpTicks = scheduler.takeWakeCatchUpTicks(self);
+            if (catchUpTicks > 0) {
+                applyDormantCatchUp(self, catchUpTicks);
+            }
+        }
+
         // Continuously remove flee goals that villagers try to add (GUARDS ONLY, SERVER ONLY)
         if (!this.getWorld().isClient() &&
             this.getVillagerData().getProfession() == ModProfessions.GUARD &&
@@ -429,6 +473,41 @@ public abstract class VillagerAIMixin extends MerchantEntity implements com.xeen
         }
     }
 
+    /**
+     * Applies a summarized catch-up for ticks a guard spent dormant: ability cooldowns
+     * advance, out-of-combat regeneration is granted for the elapsed time, and after a
+     * long sleep the patrol target is resampled.
+     */
+    @Unique
+    private void applyDormantCatchUp(VillagerEntity guard, int dormantTicks) {
+        if (guardAbilities != null) {
+            guardAbilities.advanceCooldowns(dormantTicks);
+        }
+
+        // Dormant guards are idle, so the whole stretch counts as out of combat
+        outOfCombatTicks += dormantTicks;
+
+        GuardData guardData = GuardDataManager.get(guard.getWorld()).getGuardData(guard.getUuid());
+        if (guardData != null) {
+            int tier = guardData.getRankData().getCurrentTier();
+
+            // Same rate as handleGuardPassiveEffects, for the part past the regeneration delay
+            int regenTicks = Math.min(dormantTicks, outOfCombatTicks - REGENERATION_START_DELAY);
+            if (tier >= 3 && regenTicks >= REGENERATION_TICK_INTERVAL && guard.getHealth() < guard.getMaxHealth()) {
+                float healAmount = tier >= 4 ? 1.0f : 0.5f;
+                guard.heal(healAmount * (regenTicks / REGENERATION_TICK_INTERVAL));
+            }
+        }
+
+        if (dormantTicks >= DORMANT_PATROL_RESAMPLE_TICKS) {
+            this.goalSelector.getGoals().forEach(goal -> {
+                if (goal.getGoal() instanceof GuardPatrolGoal patrolGoal) {
+                    patrolGoal.resamplePatrolTarget();
+                }
+            });
+        }
+    }
+
     /**
      * Handles passive effects for guards including regeneration and damage resistance
      */
@@ -0,0 +1,321 @@
+package com.xeenaa.villagermanager.threat;
+
+import com.xeenaa.villagermanager.ai.performance.HostileEntityIndex;
+import com.xeenaa.villagermanager.ai.performance.LineOfSightCache;
+import it.unimi.dsi.fastutil.doubles.DoubleArrayList;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Reference2DoubleMap;
+import it.unimi.dsi.fastutil.objects.Reference2DoubleOpenHashMap;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.LivingEntity;
+import net.minecraft.entity.mob.HostileEntity;
+import net.minecraft.entity.passive.VillagerEntity;
+import net.minecraft.server.world.ServerWorld;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiConsumer;
+
+/**
+ * Scores guard threat scans on a fork-join pool, one tick behind the server thread.
+ *
+ * <p>Guards request a scan during the tick. At the end of the tick the server thread only
+ * copies positions into a {@link ThreatSnapshot}: the requesting guards, every indexed
+ * hostile with its target and attacker, and every loaded villager. Candidate search,
+ * victim evaluation, the "near villagers" check and ranking all run off-thread. At the
+ * start of the next tick the ranked candidates are resolved against the live world (alive
+ * check and line of sight, which needs the world) and delivered as {@link ThreatInfo}
+ * results.</p>
+ *
+ * <p>Only one batch is in flight at a time; requests made while a batch is still being
+ * scored wait for the next capture. Delivered results a guard never collects expire after
+ * {@link #DELIVERY_TTL_TICKS} and are dropped when the guard unloads or dies.</p>
+ *
+ * @since 1.0.0
+ */
+class AsyncThreatScorer {
+    private static final Logger LOGGER = LoggerFactory.getLogger(AsyncThreatScorer.class);
+
+    // Shared by all worlds; worker threads are daemons so they never block shutdown
+    private static final ForkJoinPool SCORING_POOL = new ForkJoinPool(
+        Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+
+    // Uncollected results are stale after this long (ticks)
+    private static final int DELIVERY_TTL_TICKS = 100;
+
+    private final ServerWorld world;
+    private final ThreatDetectionManager manager;
+    private final int maxThreats;
+    private final double closeRange;
+    private final Reference2DoubleMap<VillagerEntity> pendingRequests;
+    private final Int2ObjectMap<Delivery> delivered;
+
+    // Main-thread side of the batch being scored
+    private CompletableFuture<int[][]> inFlight;
+    private ThreatSnapshot batchSnapshot;
+    private VillagerEntity[] batchGuards;
+    private HostileEntity[] batchHostiles;
+    private LivingEntity[] batchTargets;
+    private LivingEntity[] batchAttackers;
+
+    /**
+     * A result waiting for its guard's next threat scan.
+     *
+     * @param threat The selected threat
+     * @param tick Server tick the result was delivered on
+     */
+    private record Delivery(ThreatInfo threat, int tick) {
+    }
+
+    AsyncThreatScorer(ServerWorld world, ThreatDetectionManager manager, int maxThreats, double closeRange) {
+        this.world = world;
+        this.manager = manager;
+        this.maxThreats = maxThreats;
+        this.closeRange = closeRange;
+        this.pendingRequests = new Reference2DoubleOpenHashMap<>();
+        this.delivered = new Int2ObjectOpenHashMap<>();
+    }
+
+    /**
+     * Queues a threat scan for a guard.
+     *
+     * @param guard The guard villager
+     * @param range The guard's detection range
+     */
+    void request(VillagerEntity guard, double range) {
+        pendingRequests.put(guard, range);
+    }
+
+    /**
+     * Takes the result delivered for a guard since its last call, if any.
+     *
+     * @param guard The guard villager
+     * @return The delivered threat, or null if there is none or it has expired
+     */
+    ThreatInfo takeDelivered(VillagerEntity guard) {
+        Delivery delivery = delivered.remove(guard.getId());
+        if (delivery == null || world.getServer().getTicks() - delivery.tick() > DELIVERY_TTL_TICKS) {
+            return null;
+        }
+        return delivery.threat();
+    }
+
+    /**
+     * Drops a guard's pending request and undelivered result.
+     * Called when the guard unloads or dies.
+     *
+     * @param guard The guard villager
+     */
+    void forget(VillagerEntity guard) {
+        pendingRequests.removeDouble(guard);
+        delivered.remove(guard.getId());
+    }
+
+    /**
+     * Captures pending requests into a snapshot and submits it for scoring.
+     * Called at the end of the server tick.
+     */
+    void capture() {
+        if (pendingRequests.isEmpty() || inFlight != null) {
+            return;
+        }
+
+        int guardCount = pendingRequests.size();
+        VillagerEntity[] guards = new VillagerEntity[guardCount];
+        PositionBuffer guardPositions = new PositionBuffer(guardCount);
+        double[] guardRange = new double[guardCount];
+        double[] guardVerticalRange = new double[guardCount];
+
+        // Victims use the widest requested range; per-guard range is applied when scoring
+        double maxRange = 0;
+        int g = 0;
+        for (Reference2DoubleMap.Entry<VillagerEntity> request : pendingRequests.reference2DoubleEntrySet()) {
+            VillagerEntity guard = request.getKey();
+            double range = request.getDoubleValue();
+            guards[g] = guard;
+            guardPositions.add(guard);
+            guardRange[g] = range;
+            guardVerticalRange[g] = Math.min(range, HostileEntityIndex.DEFAULT_VERTICAL_RANGE);
+            maxRange = Math.max(maxRange, range);
+            g++;
+        }
+        pendingRequests.clear();
+
+        // Hostiles with their target and attacker; only field reads, evaluation is off-thread
+        List<HostileEntity> hostiles = new ArrayList<>();
+        HostileEntityIndex.get(world).forEachHostile(hostiles::add);
+        int hostileCount = hostiles.size();
+        PositionBuffer hostilePositions = new PositionBuffer(hostileCount);
+        PositionBuffer targetPositions = new PositionBuffer(hostileCount);
+        PositionBuffer attackerPositions = new PositionBuffer(hostileCount);
+        LivingEntity[] targets = new LivingEntity[hostileCount];
+        LivingEntity[] attackers = new LivingEntity[hostileCount];
+        int[] targetPriority = new int[hostileCount];
+        int[] attackerPriority = new int[hostileCount];
+
+        for (int h = 0; h < hostileCount; h++) {
+            HostileEntity hostile = hostiles.get(h);
+            hostilePositions.add(hostile);
+            targets[h] = hostile.getTarget();
+            targetPriority[h] = capturePriority(targets[h], targetPositions);
+            attackers[h] = hostile.getAttacker();
+            attackerPriority[h] = capturePriority(attackers[h], attackerPositions);
+        }
+
+        PositionBuffer villagerPositions = new PositionBuffer(64);
+        ThreatGraph.get(world).forEachVillager(villagerPositions::add);
+
+        ThreatSnapshot snapshot = new ThreatSnapshot(guardPositions.toPositions(), guardRange, guardVerticalRange,
+            hostilePositions.toPositions(), targetPositions.toPositions(), targetPriority,
+            attackerPositions.toPositions(), attackerPriority, villagerPositions.toPositions(),
+            maxRange, closeRange);
+
+        batchSnapshot = snapshot;
+        batchGuards = guards;
+        batchHostiles = hostiles.toArray(new HostileEntity[0]);
+        batchTargets = targets;
+        batchAttackers = attackers;
+        inFlight = CompletableFuture.supplyAsync(() -> snapshot.score(maxThreats), SCORING_POOL);
+    }
+
+    /**
+     * Resolves a finished batch against the live world and delivers the results.
+     * Called at the start of the server tick; a batch that is still being scored is
+     * picked up on a later tick.
+     *
+     * @param consumer Receives each guard and its selected threat
+     */
+    void apply(BiConsumer<VillagerEntity, ThreatInfo> consumer) {
+        int currentTick = world.getServer().getTicks();
+        delivered.values().removeIf(delivery -> currentTick - delivery.tick() > DELIVERY_TTL_TICKS);
+
+        if (inFlight == null || !inFlight.isDone()) {
+            return;
+        }
+
+        int[][] ranked;
+        try {
+            ranked = inFlight.join();
+        } catch (RuntimeException e) {
+            LOGGER.warn("Async threat scoring failed, dropping batch", e);
+            clearBatch();
+            return;
+        }
+
+        LineOfSightCache lineOfSight = LineOfSightCache.get(world);
+        double closeRangeSq = closeRange * closeRange;
+
+        for (int g = 0; g < batchGuards.length; g++) {
+            VillagerEntity guard = batchGuards[g];
+            if (guard.isRemoved() || !guard.isAlive()) {
+                continue;
+            }
+
+            for (int h : ranked[g]) {
+                HostileEntity hostile = batchHostiles[h];
+                if (!hostile.isAlive()) {
+                    continue;
+                }
+
+                // Line of sight needs the live world, so it is checked here for the ranked few
+                double distance = guard.squaredDistanceTo(hostile);
+                if (distance > closeRangeSq && !lineOfSight.canSee(guard, hostile)) {
+                    continue;
+                }
+
+                ThreatInfo threat = toThreatInfo(hostile, h, distance, closeRangeSq);
+                delivered.put(guard.getId(), new Delivery(threat, currentTick));
+                consumer.accept(guard, threat);
+                break;
+            }
+        }
+
+        clearBatch();
+    }
+
+    /**
+     * Drops all pending requests and undelivered results.
+     */
+    void clear() {
+        pendingRequests.clear();
+        delivered.clear();
+        if (inFlight != null) {
+            inFlight.cancel(false);
+        }
+        clearBatch();
+    }
+
+    /**
+     * Records the position of a hostile's target or attacker and the priority of
+     * defending it, or {@link ThreatSnapshot#NO_ATTACK} if there is none.
+     */
+    private int capturePriority(LivingEntity victim, PositionBuffer positions) {
+        if (victim == null || !victim.isAlive()) {
+            positions.addEmpty();
+            return ThreatSnapshot.NO_ATTACK;
+        }
+        positions.add(victim);
+        return manager.calculateAttackPriority(victim).getValue();
+    }
+
+    private ThreatInfo toThreatInfo(HostileEntity hostile, int h, double distance, double closeRangeSq) {
+        LivingEntity victim = switch (batchSnapshot.getVictimKind(h)) {
+            case ThreatSnapshot.VICTIM_TARGET -> batchTargets[h];
+            case ThreatSnapshot.VICTIM_ATTACKER -> batchAttackers[h];
+            default -> null;
+        };
+        if (victim != null && victim.isAlive()) {
+            return new ThreatInfo(hostile, victim, manager.calculateAttackPriority(victim),
+                ThreatType.ACTIVE_ATTACK, distance);
+        }
+
+        return new ThreatInfo(hostile, null,
+            ThreatPriority.getProximityPriority(distance, closeRangeSq, batchSnapshot.isNearVillagers(h)),
+            ThreatType.PROXIMITY_THREAT, distance);
+    }
+
+    private void clearBatch() {
+        inFlight = null;
+        batchSnapshot = null;
+        batchGuards = null;
+        batchHostiles = null;
+        batchTargets = null;
+        batchAttackers = null;
+    }
+
+    /**
+     * Growable position columns, copied into {@link ThreatSnapshot.Positions}.
+     */
+    private static final class PositionBuffer {
+        private final DoubleArrayList x;
+        private final DoubleArrayList y;
+        private final DoubleArrayList z;
+
+        PositionBuffer(int capacity) {
+            this.x = new DoubleArrayList(capacity);
+            this.y = new DoubleArrayList(capacity);
+            this.z = new DoubleArrayList(capacity);
+        }
+
+        void add(Entity entity) {
+            x.add(entity.getX());
+            y.add(entity.getY());
+            z.add(entity.getZ());
+        }
+
+        void addEmpty() {
+            x.add(0);
+            y.add(0);
+            z.add(0);
+        }
+
+        ThreatSnapshot.Positions toPositions() {
+            return new ThreatSnapshot.Positions(x.toDoubleArray(), y.toDoubleArray(), z.toDoubleArray());
+        }
+    }
+}
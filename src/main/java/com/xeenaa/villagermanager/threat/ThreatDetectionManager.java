@@ -2,15 +2,22 @@ package com.xeenaa.villagermanager.threat;
 
 import com.xeenaa.villagermanager.XeenaaVillagerManager;
 import com.xeenaa.villagermanager.ai.performance.GuardAIScheduler;
+import com.xeenaa.villagermanager.ai.performance.GuardRegistry;
+import com.xeenaa.villagermanager.ai.performance.GuardWorkBudget;
+import com.xeenaa.villagermanager.ai.performance.HostileEntityIndex;
+import com.xeenaa.villagermanager.ai.performance.LineOfSightCache;
+import com.xeenaa.villagermanager.config.ModConfig;
 import com.xeenaa.villagermanager.data.GuardData;
 import com.xeenaa.villagermanager.data.GuardDataManager;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
 import net.minecraft.entity.LivingEntity;
-import net.minecraft.entity.ai.TargetPredicate;
 import net.minecraft.entity.mob.HostileEntity;
 import net.minecraft.entity.passive.VillagerEntity;
 import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.server.world.ServerWorld;
-import net.minecraft.util.math.Box;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.Vec3d;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -27,6 +34,9 @@ import java.util.concurrent.ConcurrentHashMap;
  *   <li>Priority-based threat classification</li>
  *   <li>Memory system for tracking recent threats</li>
  *   <li>Performance optimization through caching and cooldowns</li>
+ *   <li>Cluster mode: guards within the same 16x16 cell share one scan per interval</li>
+ *   <li>Optional async mode: scoring runs on a fork-join pool over tick snapshots, one tick behind</li>
+ *   <li>Bounded top-K selection over a per-tick {@link ThreatGraph} (no full sorts or per-hostile queries)</li>
  * </ul>
  *
  * <p>Threat priorities (higher number = higher priority):</p>
@@ -62,10 +72,18 @@ public class ThreatDetectionManager {
     private static final int MAX_THREATS_PER_SCAN = 10;
     private static final int QUICK_SCAN_INTERVAL = 5; // Quick scans every 5 ticks
 
+    // Cluster scanning - guards in the same 16x16 cell share one scan
+    private static final int CLUSTER_CELL_SHIFT = 4; // 16-block cells
+    private static final double CLUSTER_CELL_RADIUS = 12.0; // Half-diagonal of a cell, rounded up
+    private static final int CLUSTER_SCAN_INTERVAL = 10; // Shared scan refreshed every 0.5 seconds
+    private static final int CLUSTER_EXPIRY = 200; // Drop clusters with no guard scanning for 10 seconds
+
     private final ServerWorld world;
-    private final Map<UUID, ThreatInfo> activeThreatMemory;
-    private final Map<UUID, Integer> guardCooldowns;
+    private final ThreatMemory activeThreatMemory;
+    private final Long2ObjectMap<ClusterScan> clusterScans;
+    private final AsyncThreatScorer asyncScorer;
     private int lastFullScanTick;
+    private int lastClusterPruneTick;
 
     /**
      * Gets or creates a threat detection manager for the specified world
@@ -84,9 +102,11 @@ public class ThreatDetectionManager {
 
     private ThreatDetectionManager(ServerWorld world) {
         this.world = world;
-        this.activeThreatMemory = new ConcurrentHashMap<>();
-        this.guardCooldowns = new ConcurrentHashMap<>();
+        this.activeThreatMemory = new ThreatMemory(world, THREAT_MEMORY_DURATION);
+        this.clusterScans = new Long2ObjectOpenHashMap<>();
+        this.asyncScorer = new AsyncThreatScorer(world, this, MAX_THREATS_PER_SCAN, CLOSE_THREAT_RANGE);
         this.lastFullScanTick = 0;
+        this.lastClusterPruneTick = 0;
     }
 
     /**
@@ -103,6 +123,15 @@ public class ThreatDetectionManager {
 
         UUID guardId = guard.getUuid();
         int currentTick = world.getServer().getTicks();
+        boolean asyncScoring = ModConfig.getInstance().getPerformanceSettings().async_threat_scoring;
+
+        // Async mode: hand back the result scored off-thread since the last scan request
+        if (asyncScoring) {
+            ThreatInfo delivered = asyncScorer.takeDelivered(guard);
+            if (delivered != null) {
+                return delivered;
+            }
+        }
 
         // Use intelligent scheduler to determine if this guard should detect threats this tick
         GuardAIScheduler scheduler = GuardAIScheduler.get(world);
@@ -125,16 +154,25 @@ public class ThreatDetectionManager {
         String rankName = guardData.getRankData().getCurrentRank().getDisplayName();
         double responseSpeed = getResponseSpeedForGuard(guard);
 
-        // Perform threat detection
-        List<ThreatInfo> threats = detectAllThreats(guard, detectionRange);
+        // Async mode: score at the end of this tick, deliver at the start of the next one
+        if (asyncScoring) {
+            asyncScorer.request(guard, detectionRange);
+            cleanupThreatMemory(currentTick);
+            return getCachedThreat(guard);
+        }
+
+        // Perform threat detection (shared per cluster when enabled)
+        long scanStart = System.nanoTime();
+        List<ThreatInfo> threats = ModConfig.getInstance().getPerformanceSettings().cluster_threat_scanning
+            ? detectClusterThreats(guard, detectionRange, currentTick)
+            : detectAllThreats(guard, detectionRange);
+        GuardWorkBudget.get(world).recordCost(GuardWorkBudget.WorkType.THREAT_SCAN, System.nanoTime() - scanStart);
 
         // Clean up old threats from memory
         cleanupThreatMemory(currentTick);
 
-        // Find highest priority threat
-        ThreatInfo primaryThreat = threats.stream()
-            .max(Comparator.comparingInt(ThreatInfo::getPriorityValue))
-            .orElse(null);
+        // Threats come back highest priority first
+        ThreatInfo primaryThreat = threats.isEmpty() ? null : threats.get(0);
 
         // LOG THREAT DETECTION
         if (primaryThreat != null) {
@@ -157,6 +195,37 @@ public class ThreatDetectionManager {
         return primaryThreat;
     }
 
+    /**
+     * Captures this tick's async scan requests and submits them for off-thread scoring.
+     * Called at the end of each world tick; does nothing unless async scoring is enabled.
+     */
+    public void captureAsyncScoring() {
+        if (ModConfig.getInstance().getPerformanceSettings().async_threat_scoring) {
+            asyncScorer.capture();
+        }
+    }
+
+    /**
+     * Applies threats scored off-thread during the previous tick.
+     * Called at the start of each world tick; does nothing unless async scoring is enabled.
+     *
+     * <p>Results are remembered like synchronous detections, and idle guards are given
+     * high priority threats as their target right away.</p>
+     */
+    public void applyAsyncScoring() {
+        if (!ModConfig.getInstance().getPerformanceSettings().async_threat_scoring) {
+            return;
+        }
+
+        int currentTick = world.getServer().getTicks();
+        asyncScorer.apply((guard, threat) -> {
+            updateThreatMemory(threat, currentTick);
+            if (threat.isHighPriority() && guard.getTarget() == null) {
+                guard.setTarget(threat.getThreatEntity());
+            }
+        });
+    }
+
     /**
      * Registers an attack event for immediate threat detection
      *
@@ -204,124 +273,229 @@ public class ThreatDetectionManager {
      * Checks if a specific entity is currently considered a threat
      */
     public boolean isThreat(LivingEntity entity) {
-        return activeThreatMemory.values().stream()
-            .anyMatch(threat -> threat.getThreatEntity().equals(entity));
+        return activeThreatMemory.contains(entity);
     }
 
     /**
      * Gets threat information for a specific entity
      */
     public ThreatInfo getThreatInfo(LivingEntity entity) {
-        return activeThreatMemory.values().stream()
-            .filter(threat -> threat.getThreatEntity().equals(entity))
-            .findFirst()
-            .orElse(null);
+        return activeThreatMemory.get(entity);
+    }
+
+    /**
+     * Removes an entity from threat memory immediately (on death or unload)
+     */
+    public void forgetThreat(LivingEntity entity) {
+        activeThreatMemory.forget(entity);
+    }
+
+    /**
+     * Drops a guard's queued async scan and any result it has not collected yet
+     * (on death or unload).
+     *
+     * @param guard The guard villager
+     */
+    public void forgetGuard(VillagerEntity guard) {
+        asyncScorer.forget(guard);
     }
 
     private List<ThreatInfo> detectAllThreats(VillagerEntity guard, double range) {
-        List<ThreatInfo> threats = new ArrayList<>();
-        Box detectionBox = guard.getBoundingBox().expand(range);
-
-        // Detect hostile entities - OPTIMIZED: First filter by alive only, defer expensive canSee check
-        List<HostileEntity> hostiles = world.getEntitiesByClass(
-            HostileEntity.class,
-            detectionBox,
-            HostileEntity::isAlive
+        // Detect hostile entities from the shared per-tick index - OPTIMIZED: cylindrical range with
+        // a vertical clamp so cave mobs far below never become candidates, defer expensive canSee check
+        List<HostileEntity> hostiles = HostileEntityIndex.get(world).getHostilesInRange(
+            guard.getPos(),
+            range,
+            Math.min(range, HostileEntityIndex.DEFAULT_VERTICAL_RANGE)
         );
 
         // Early exit if no hostiles nearby
         if (hostiles.isEmpty()) {
-            return threats;
+            return new ArrayList<>();
         }
 
-        // Sort hostiles by distance (closer threats are higher priority)
-        // This allows us to process closer threats first and potentially skip distant ones
-        hostiles.sort(Comparator.comparingDouble(guard::squaredDistanceTo));
-
-        // Analyze each hostile for threat level
-        for (HostileEntity hostile : hostiles) {
-            // Perform expensive visibility check only when needed
-            // Skip if we already have enough high-priority threats
-            if (threats.size() >= MAX_THREATS_PER_SCAN) {
-                break;
-            }
+        ThreatGraph graph = ThreatGraph.get(world);
+        ThreatSelectionHeap heap = new ThreatSelectionHeap(MAX_THREATS_PER_SCAN);
+        LivingEntity[] victims = new LivingEntity[hostiles.size()];
+        ThreatPriority[] priorities = new ThreatPriority[hostiles.size()];
+        double[] distances = new double[hostiles.size()];
 
-            // Visibility check is expensive (raytrace), so do it only after distance check
+        // Score every hostile with a primitive key and keep only the top MAX_THREATS_PER_SCAN
+        for (int i = 0; i < hostiles.size(); i++) {
+            HostileEntity hostile = hostiles.get(i);
             double distance = guard.squaredDistanceTo(hostile);
             if (distance > range * range) {
                 continue;  // Too far, skip
             }
 
+            LivingEntity victim = graph.findVictim(hostile, range, CLOSE_THREAT_RANGE);
+            ThreatPriority priority = victim != null
+                ? calculateAttackPriority(victim)
+                : ThreatPriority.getProximityPriority(distance, CLOSE_THREAT_RANGE * CLOSE_THREAT_RANGE,
+                    distance > CLOSE_THREAT_RANGE * CLOSE_THREAT_RANGE && graph.hasVillagerNear(hostile, CLOSE_THREAT_RANGE));
+
+            long key = ThreatSelectionHeap.scoreKey(priority.getValue(), distance);
+            if (!heap.wouldAccept(key)) {
+                continue;  // Could not make the top threats, skip the raycast
+            }
+
             // Only check line of sight for distant threats
             // Close threats (<8 blocks) don't need visibility check
-            if (distance > CLOSE_THREAT_RANGE * CLOSE_THREAT_RANGE) {
-                if (!guard.canSee(hostile)) {
-                    continue;  // Can't see, skip
-                }
+            if (distance > CLOSE_THREAT_RANGE * CLOSE_THREAT_RANGE
+                    && !LineOfSightCache.get(world).canSee(guard, hostile)) {
+                continue;  // Can't see, skip
             }
 
-            ThreatInfo threat = analyzeThreat(guard, hostile, range);
-            if (threat != null) {
-                threats.add(threat);
-            }
+            victims[i] = victim;
+            priorities[i] = priority;
+            distances[i] = distance;
+            heap.offer(key, i);
         }
 
-        // Sort by priority (highest first)
-        threats.sort((a, b) -> Integer.compare(b.getPriorityValue(), a.getPriorityValue()));
+        // Highest priority first, closest first within a priority
+        int[] selected = heap.drainDescending();
+        List<ThreatInfo> threats = new ArrayList<>(selected.length);
+        for (int i : selected) {
+            threats.add(new ThreatInfo(
+                hostiles.get(i),
+                victims[i],
+                priorities[i],
+                victims[i] != null ? ThreatType.ACTIVE_ATTACK : ThreatType.PROXIMITY_THREAT,
+                distances[i]
+            ));
+        }
 
         return threats;
     }
 
-    private ThreatInfo analyzeThreat(VillagerEntity guard, HostileEntity hostile, double range) {
-        double distance = guard.squaredDistanceTo(hostile);
-
-        // Check if hostile is actively attacking someone
-        LivingEntity victim = findAttackVictim(hostile, range);
-        if (victim != null) {
-            ThreatPriority priority = calculateAttackPriority(victim);
-            return new ThreatInfo(
-                hostile,
-                victim,
-                priority,
-                ThreatType.ACTIVE_ATTACK,
-                distance
-            );
+    /**
+     * Detects threats for a guard from the shared scan of its 16x16 cluster cell.
+     * Guards in the same cell reuse one union-range scan (hostile lookup, victim and
+     * villager checks) and apply their own range, height and visibility filter.
+     */
+    private List<ThreatInfo> detectClusterThreats(VillagerEntity guard, double range, int currentTick) {
+        long clusterKey = ChunkPos.toLong(guard.getBlockX() >> CLUSTER_CELL_SHIFT, guard.getBlockZ() >> CLUSTER_CELL_SHIFT);
+        ClusterScan scan = clusterScans.get(clusterKey);
+        double guardY = guard.getY();
+
+        if (scan == null || currentTick - scan.scanTick >= CLUSTER_SCAN_INTERVAL || scan.range < range
+                || guardY < scan.minY || guardY > scan.maxY) {
+            // Union range and height span: keep covering every member seen recently
+            boolean recent = scan != null && currentTick - scan.scanTick < CLUSTER_EXPIRY;
+            double scanRange = recent ? Math.max(range, scan.range) : range;
+            double minY = recent ? Math.min(guardY, scan.minY) : guardY;
+            double maxY = recent ? Math.max(guardY, scan.maxY) : guardY;
+            scan = scanCluster(clusterKey, scanRange, minY, maxY, currentTick);
+            clusterScans.put(clusterKey, scan);
         }
 
-        // Check for proximity threats
-        ThreatPriority proximityPriority = calculateProximityPriority(guard, hostile, distance);
-        if (proximityPriority != ThreatPriority.NONE) {
-            return new ThreatInfo(
-                hostile,
-                null,
-                proximityPriority,
-                ThreatType.PROXIMITY_THREAT,
-                distance
-            );
+        pruneClusterScans(currentTick);
+
+        return filterClusterScan(guard, scan, range);
+    }
+
+    /**
+     * Performs one shared scan for a cluster cell, covering every guard position in the cell
+     * between the given heights. Visibility is left to each guard.
+     */
+    private ClusterScan scanCluster(long clusterKey, double range, double minY, double maxY, int currentTick) {
+        double centerX = (ChunkPos.getPackedX(clusterKey) << CLUSTER_CELL_SHIFT) + 8.0;
+        double centerZ = (ChunkPos.getPackedZ(clusterKey) << CLUSTER_CELL_SHIFT) + 8.0;
+        Vec3d center = new Vec3d(centerX, (minY + maxY) / 2.0, centerZ);
+
+        List<HostileEntity> hostiles = HostileEntityIndex.get(world).getHostilesInRange(
+            center,
+            range + CLUSTER_CELL_RADIUS,
+            Math.min(range, HostileEntityIndex.DEFAULT_VERTICAL_RANGE) + (maxY - minY) / 2.0
+        );
+
+        ThreatGraph graph = ThreatGraph.get(world);
+        List<ScannedHostile> scanned = new ArrayList<>(hostiles.size());
+        for (HostileEntity hostile : hostiles) {
+            LivingEntity victim = graph.findVictim(hostile, range, CLOSE_THREAT_RANGE);
+            boolean nearVillagers = victim == null && graph.hasVillagerNear(hostile, CLOSE_THREAT_RANGE);
+            scanned.add(new ScannedHostile(hostile, victim, nearVillagers));
         }
 
-        return null;
+        return new ClusterScan(currentTick, range, minY, maxY, scanned);
     }
 
-    private LivingEntity findAttackVictim(HostileEntity hostile, double range) {
-        // Check current target
-        LivingEntity target = hostile.getTarget();
-        if (target != null && target.isAlive() &&
-            hostile.squaredDistanceTo(target) <= range * range) {
-            return target;
+    /**
+     * Builds a guard's view of a shared cluster scan using its own position and range.
+     */
+    private List<ThreatInfo> filterClusterScan(VillagerEntity guard, ClusterScan scan, double range) {
+        if (scan.hostiles.isEmpty()) {
+            return new ArrayList<>();
         }
 
-        // Check recent damage
-        LivingEntity attacker = hostile.getAttacker();
-        if (attacker != null && attacker.isAlive() &&
-            hostile.squaredDistanceTo(attacker) <= CLOSE_THREAT_RANGE * CLOSE_THREAT_RANGE) {
-            return attacker;
+        double rangeSq = range * range;
+        double verticalRange = Math.min(range, HostileEntityIndex.DEFAULT_VERTICAL_RANGE);
+        ThreatSelectionHeap heap = new ThreatSelectionHeap(MAX_THREATS_PER_SCAN);
+        ThreatPriority[] priorities = new ThreatPriority[scan.hostiles.size()];
+        double[] distances = new double[scan.hostiles.size()];
+
+        for (int i = 0; i < scan.hostiles.size(); i++) {
+            ScannedHostile entry = scan.hostiles.get(i);
+            HostileEntity hostile = entry.hostile();
+            if (!hostile.isAlive() || Math.abs(hostile.getY() - guard.getY()) > verticalRange) {
+                continue;
+            }
+
+            double distance = guard.squaredDistanceTo(hostile);
+            if (distance > rangeSq) {
+                continue;
+            }
+
+            // Same rule as individual scans: close threats skip the visibility requirement,
+            // and the raycast runs from this guard's own eyes (shared through the cache)
+            if (distance > CLOSE_THREAT_RANGE * CLOSE_THREAT_RANGE
+                    && !LineOfSightCache.get(world).canSee(guard, hostile)) {
+                continue;
+            }
+
+            ThreatPriority priority = isLiveVictim(entry)
+                ? calculateAttackPriority(entry.victim())
+                : ThreatPriority.getProximityPriority(distance, CLOSE_THREAT_RANGE * CLOSE_THREAT_RANGE, entry.nearVillagers());
+
+            priorities[i] = priority;
+            distances[i] = distance;
+            heap.offer(ThreatSelectionHeap.scoreKey(priority.getValue(), distance), i);
+        }
+
+        // Highest priority first, closest first within a priority
+        int[] selected = heap.drainDescending();
+        List<ThreatInfo> threats = new ArrayList<>(selected.length);
+        for (int i : selected) {
+            ScannedHostile entry = scan.hostiles.get(i);
+            boolean attacking = isLiveVictim(entry);
+            threats.add(new ThreatInfo(
+                entry.hostile(),
+                attacking ? entry.victim() : null,
+                priorities[i],
+                attacking ? ThreatType.ACTIVE_ATTACK : ThreatType.PROXIMITY_THREAT,
+                distances[i]
+            ));
         }
 
-        return null;
+        return threats;
+    }
+
+    private static boolean isLiveVictim(ScannedHostile entry) {
+        return entry.victim() != null && entry.victim().isAlive();
     }
 
-    private ThreatPriority calculateAttackPriority(LivingEntity victim) {
+    /**
+     * Drops cluster scans no guard has refreshed recently.
+     */
+    private void pruneClusterScans(int currentTick) {
+        if (currentTick - lastClusterPruneTick < CLUSTER_EXPIRY) {
+            return;
+        }
+        lastClusterPruneTick = currentTick;
+        clusterScans.values().removeIf(scan -> currentTick - scan.scanTick >= CLUSTER_EXPIRY);
+    }
+
+    ThreatPriority calculateAttackPriority(LivingEntity victim) {
         if (victim instanceof PlayerEntity) {
             return ThreatPriority.PLAYER_UNDER_ATTACK;
         } else if (victim instanceof VillagerEntity) {
@@ -335,28 +509,6 @@ public class ThreatDetectionManager {
         return ThreatPriority.NONE;
     }
 
-    private ThreatPriority calculateProximityPriority(VillagerEntity guard, HostileEntity hostile, double distance) {
-        // High priority for very close threats
-        if (distance <= CLOSE_THREAT_RANGE * CLOSE_THREAT_RANGE) {
-            return ThreatPriority.PROXIMITY_THREAT_HIGH;
-        }
-
-        // Check if hostile is near other villagers
-        List<VillagerEntity> nearbyVillagers = world.getTargets(
-            VillagerEntity.class,
-            TargetPredicate.createNonAttackable().setBaseMaxDistance(CLOSE_THREAT_RANGE),
-            hostile,
-            hostile.getBoundingBox().expand(CLOSE_THREAT_RANGE)
-        );
-
-        if (!nearbyVillagers.isEmpty()) {
-            return ThreatPriority.PROXIMITY_THREAT_MEDIUM;
-        }
-
-        // General proximity threat
-        return ThreatPriority.PROXIMITY_THREAT_LOW;
-    }
-
     private double calculateDetectionRange(GuardData guardData) {
         // Use tier-based detection range scaling with rank integration
         int tier = guardData.getRankData().getCurrentTier();
@@ -385,42 +537,27 @@ public class ThreatDetectionManager {
     }
 
     private ThreatInfo getCachedThreat(VillagerEntity guard) {
-        // Find the most relevant cached threat for this guard
-        double guardX = guard.getX();
-        double guardZ = guard.getZ();
-
-        return activeThreatMemory.values().stream()
-            .filter(threat -> threat.getThreatEntity().isAlive())
-            .filter(threat -> {
-                double dx = threat.getThreatEntity().getX() - guardX;
-                double dz = threat.getThreatEntity().getZ() - guardZ;
-                return (dx * dx + dz * dz) <= BASE_DETECTION_RANGE * BASE_DETECTION_RANGE;
-            })
-            .max(Comparator.comparingInt(ThreatInfo::getPriorityValue))
-            .orElse(null);
+        // Find the most relevant cached threat for this guard from the spatial grid
+        return activeThreatMemory.findHighestPriorityNear(guard.getX(), guard.getZ(), BASE_DETECTION_RANGE);
     }
 
     private void updateThreatMemory(ThreatInfo threat, int currentTick) {
-        UUID threatId = threat.getThreatEntity().getUuid();
         threat.setLastSeenTick(currentTick);
-        activeThreatMemory.put(threatId, threat);
+        activeThreatMemory.remember(threat, currentTick);
     }
 
     private void cleanupThreatMemory(int currentTick) {
-        activeThreatMemory.entrySet().removeIf(entry -> {
-            ThreatInfo threat = entry.getValue();
-            return !threat.getThreatEntity().isAlive() ||
-                   (currentTick - threat.getLastSeenTick()) > THREAT_MEMORY_DURATION;
-        });
+        // Only touches timer wheel slots that became due since the last call
+        activeThreatMemory.expire(currentTick);
     }
 
     private void alertNearbyGuards(LivingEntity victim, ThreatInfo threat) {
         double alertRange = BASE_DETECTION_RANGE * 2; // 32 blocks
 
-        List<VillagerEntity> nearbyGuards = world.getEntitiesByClass(
-            VillagerEntity.class,
+        // Only registered guards are visited, not every villager in range
+        List<VillagerEntity> nearbyGuards = GuardRegistry.get(world).getGuardsInBox(
             victim.getBoundingBox().expand(alertRange),
-            villager -> isGuard(villager) && villager.getTarget() == null
+            villager -> villager.getTarget() == null
         );
 
         for (VillagerEntity guard : nearbyGuards) {
@@ -483,4 +620,29 @@ public class ThreatDetectionManager {
             default -> 1.0;
         };
     }
-}
\ No newline at end of file
+
+    /**
+     * Shared scan result for one guard cluster cell.
+     */
+    private static class ClusterScan {
+        final int scanTick;
+        final double range;
+        final double minY;
+        final double maxY;
+        final List<ScannedHostile> hostiles;
+
+        ClusterScan(int scanTick, double range, double minY, double maxY, List<ScannedHostile> hostiles) {
+            this.scanTick = scanTick;
+            this.range = range;
+            this.minY = minY;
+            this.maxY = maxY;
+            this.hostiles = hostiles;
+        }
+    }
+
+    /**
+     * Guard-independent analysis of one hostile from a cluster scan.
+     */
+    private record ScannedHostile(HostileEntity hostile, LivingEntity victim, boolean nearVillagers) {
+    }
+}
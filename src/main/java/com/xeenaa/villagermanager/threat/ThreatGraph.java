@@ -0,0 +1,226 @@
+package com.xeenaa.villagermanager.threat;
+
+import com.xeenaa.villagermanager.ai.performance.HostileEntityIndex;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.LivingEntity;
+import net.minecraft.entity.mob.HostileEntity;
+import net.minecraft.entity.passive.VillagerEntity;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Per-tick view of "who is attacking whom" and where villagers are, shared by all threat scans.
+ *
+ * <p>Built lazily on the first threat scan of each tick:</p>
+ * <ul>
+ *   <li>A hostile-to-victim graph from every indexed hostile's current target and most
+ *       recent attacker, so scans never re-derive victims per guard</li>
+ *   <li>A villager occupancy grid (8-block cells) replacing per-hostile
+ *       {@code getTargets(VillagerEntity...)} queries for "hostile near villagers" checks</li>
+ * </ul>
+ *
+ * <p>Villagers are tracked through entity load/unload events, like hostiles in the
+ * {@link HostileEntityIndex}.</p>
+ *
+ * @since 1.0.0
+ */
+public class ThreatGraph {
+    private static final Map<String, ThreatGraph> INSTANCES = new ConcurrentHashMap<>();
+
+    private static final int VILLAGER_CELL_SHIFT = 3; // 8-block cells
+
+    private final ServerWorld world;
+    private final Set<VillagerEntity> loadedVillagers;
+    private final Reference2ObjectMap<HostileEntity, LivingEntity> targetEdges;
+    private final Reference2ObjectMap<HostileEntity, LivingEntity> attackerEdges;
+    private final Long2ObjectMap<List<VillagerEntity>> villagerCells;
+    private int lastBuildTick = -1;
+
+    /**
+     * Gets or creates the threat graph for the specified world.
+     *
+     * @param world The server world
+     * @return The threat graph for this world
+     */
+    public static ThreatGraph get(ServerWorld world) {
+        return INSTANCES.computeIfAbsent(world.getRegistryKey().getValue().toString(),
+            k -> new ThreatGraph(world));
+    }
+
+    /**
+     * Clears all graphs (for cleanup).
+     */
+    public static void clearAll() {
+        INSTANCES.clear();
+    }
+
+    private ThreatGraph(ServerWorld world) {
+        this.world = world;
+        this.loadedVillagers = new ReferenceOpenHashSet<>();
+        this.targetEdges = new Reference2ObjectOpenHashMap<>();
+        this.attackerEdges = new Reference2ObjectOpenHashMap<>();
+        this.villagerCells = new Long2ObjectOpenHashMap<>();
+    }
+
+    /**
+     * Starts tracking an entity if it is a villager.
+     *
+     * @param entity The entity that was loaded into the world
+     */
+    public void onEntityLoad(Entity entity) {
+        if (entity instanceof VillagerEntity villager) {
+            loadedVillagers.add(villager);
+        }
+    }
+
+    /**
+     * Stops tracking an entity that was unloaded or removed from the world.
+     *
+     * @param entity The entity that was unloaded
+     */
+    public void onEntityUnload(Entity entity) {
+        if (entity instanceof VillagerEntity villager) {
+            loadedVillagers.remove(villager);
+        }
+    }
+
+    /**
+     * Finds the entity a hostile is attacking, if any.
+     * Same rules as a direct check: the current target within {@code range}, otherwise
+     * the most recent attacker within {@code closeRange}.
+     *
+     * @param hostile The hostile mob
+     * @param range Maximum distance to the hostile's target
+     * @param closeRange Maximum distance to the hostile's attacker
+     * @return The victim, or null if the hostile is not attacking anyone in range
+     */
+    public LivingEntity findVictim(HostileEntity hostile, double range, double closeRange) {
+        ensureBuilt();
+
+        LivingEntity target = targetEdges.get(hostile);
+        if (target != null && target.isAlive() && hostile.squaredDistanceTo(target) <= range * range) {
+            return target;
+        }
+
+        LivingEntity attacker = attackerEdges.get(hostile);
+        if (attacker != null && attacker.isAlive() && hostile.squaredDistanceTo(attacker) <= closeRange * closeRange) {
+            return attacker;
+        }
+
+        return null;
+    }
+
+    /**
+     * Checks whether a hostile has a villager it can see within a radius.
+     *
+     * @param hostile The hostile mob
+     * @param radius Search radius in blocks
+     * @return true if a visible villager is within the radius
+     */
+    public boolean hasVillagerNear(HostileEntity hostile, double radius) {
+        ensureBuilt();
+
+        if (villagerCells.isEmpty()) {
+            return false;
+        }
+
+        double radiusSq = radius * radius;
+        int minX = (int) Math.floor(hostile.getX() - radius) >> VILLAGER_CELL_SHIFT;
+        int minY = (int) Math.floor(hostile.getY() - radius) >> VILLAGER_CELL_SHIFT;
+        int minZ = (int) Math.floor(hostile.getZ() - radius) >> VILLAGER_CELL_SHIFT;
+        int maxX = (int) Math.floor(hostile.getX() + radius) >> VILLAGER_CELL_SHIFT;
+        int maxY = (int) Math.floor(hostile.getY() + radius) >> VILLAGER_CELL_SHIFT;
+        int maxZ = (int) Math.floor(hostile.getZ() + radius) >> VILLAGER_CELL_SHIFT;
+
+        for (int cx = minX; cx <= maxX; cx++) {
+            for (int cz = minZ; cz <= maxZ; cz++) {
+                for (int cy = minY; cy <= maxY; cy++) {
+                    List<VillagerEntity> cell = villagerCells.get(BlockPos.asLong(cx, cy, cz));
+                    if (cell == null) {
+                        continue;
+                    }
+                    for (VillagerEntity villager : cell) {
+                        if (villager.isAlive()
+                                && hostile.squaredDistanceTo(villager) <= radiusSq
+                                && hostile.getVisibilityCache().canSee(villager)) {
+                            return true;
+                        }
+                    }
+                }
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Visits every loaded villager that is still alive.
+     *
+     * @param visitor Receives each villager
+     */
+    public void forEachVillager(Consumer<? super VillagerEntity> visitor) {
+        for (VillagerEntity villager : loadedVillagers) {
+            if (!villager.isRemoved() && villager.isAlive()) {
+                visitor.accept(villager);
+            }
+        }
+    }
+
+    /**
+     * Rebuilds the graph and grid if they were last built on an earlier tick.
+     */
+    private void ensureBuilt() {
+        int currentTick = world.getServer().getTicks();
+        if (currentTick == lastBuildTick) {
+            return;
+        }
+        lastBuildTick = currentTick;
+
+        targetEdges.clear();
+        attackerEdges.clear();
+        HostileEntityIndex.get(world).forEachHostile(hostile -> {
+            LivingEntity target = hostile.getTarget();
+            if (target != null) {
+                targetEdges.put(hostile, target);
+            }
+            LivingEntity attacker = hostile.getAttacker();
+            if (attacker != null) {
+                attackerEdges.put(hostile, attacker);
+            }
+        });
+
+        villagerCells.clear();
+        Iterator<VillagerEntity> iterator = loadedVillagers.iterator();
+        while (iterator.hasNext()) {
+            VillagerEntity villager = iterator.next();
+            if (villager.isRemoved()) {
+                iterator.remove();
+                continue;
+            }
+
+            long cellKey = BlockPos.asLong(
+                villager.getBlockX() >> VILLAGER_CELL_SHIFT,
+                villager.getBlockY() >> VILLAGER_CELL_SHIFT,
+                villager.getBlockZ() >> VILLAGER_CELL_SHIFT);
+            List<VillagerEntity> cell = villagerCells.get(cellKey);
+            if (cell == null) {
+                cell = new ArrayList<>(4);
+                villagerCells.put(cellKey, cell);
+            }
+            cell.add(villager);
+        }
+    }
+}
@@ -0,0 +1,318 @@
+package com.xeenaa.villagermanager.threat;
+
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.LivingEntity;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.ChunkPos;
+
+/**
+ * Indexed, expiring store of recently seen threats for a single world.
+ *
+ * <p>Entries are keyed by entity network id and only hold ids and primitive data, never
+ * strong {@link LivingEntity} references, so dead or unloaded mobs are not kept alive
+ * for the memory duration. Entities are resolved through the world on read.</p>
+ *
+ * <p>The store maintains two secondary structures:</p>
+ * <ul>
+ *   <li>A chunk-column grid for "threats near this guard" lookups</li>
+ *   <li>A tick-bucketed timer wheel so expiry only touches entries that are due,
+ *       instead of sweeping the whole store</li>
+ * </ul>
+ *
+ * <p>Not thread-safe; only accessed from the server thread.</p>
+ *
+ * @since 1.0.0
+ */
+public class ThreatMemory {
+    private static final int NO_ENTITY = -1;
+
+    // Timer wheel configuration: 64 slots of 16 ticks cover 1024 ticks,
+    // comfortably more than the memory duration plus one slot of slack
+    private static final int SLOT_SHIFT = 4;
+    private static final int SLOT_COUNT = 64;
+
+    private final ServerWorld world;
+    private final int memoryDuration;
+    private final Int2ObjectMap<Entry> entries;
+    private final Long2ObjectMap<IntArrayList> grid;
+    private final IntArrayList[] expiryWheel;
+    private long nextSlotToExpire = -1;
+
+    /**
+     * Creates a threat memory for a world.
+     *
+     * @param world The server world used to resolve entity ids
+     * @param memoryDuration How long (in ticks) a threat is remembered after it was last seen
+     */
+    public ThreatMemory(ServerWorld world, int memoryDuration) {
+        if (memoryDuration >= ((SLOT_COUNT - 1) << SLOT_SHIFT)) {
+            throw new IllegalArgumentException("Memory duration exceeds timer wheel horizon: " + memoryDuration);
+        }
+
+        this.world = world;
+        this.memoryDuration = memoryDuration;
+        this.entries = new Int2ObjectOpenHashMap<>();
+        this.grid = new Long2ObjectOpenHashMap<>();
+        this.expiryWheel = new IntArrayList[SLOT_COUNT];
+        for (int i = 0; i < SLOT_COUNT; i++) {
+            expiryWheel[i] = new IntArrayList();
+        }
+    }
+
+    /**
+     * Records or refreshes a threat.
+     *
+     * @param threat The detected threat
+     * @param currentTick Current server tick
+     */
+    public void remember(ThreatInfo threat, int currentTick) {
+        LivingEntity threatEntity = threat.getThreatEntity();
+        int entityId = threatEntity.getId();
+        long cellKey = ChunkPos.toLong(threatEntity.getBlockX() >> 4, threatEntity.getBlockZ() >> 4);
+
+        Entry entry = entries.get(entityId);
+        if (entry == null) {
+            entry = new Entry(entityId);
+            entries.put(entityId, entry);
+            addToCell(cellKey, entityId);
+        } else if (entry.cellKey != cellKey) {
+            removeFromCell(entry.cellKey, entityId);
+            addToCell(cellKey, entityId);
+        }
+
+        entry.cellKey = cellKey;
+        entry.victimId = threat.getVictimEntity() != null ? threat.getVictimEntity().getId() : NO_ENTITY;
+        entry.priority = threat.getPriority();
+        entry.type = threat.getType();
+        entry.distanceSquared = threat.getDistanceSquared();
+        entry.lastSeenTick = currentTick;
+
+        int expiryTick = currentTick + memoryDuration;
+        if (expiryTick != entry.expiryTick) {
+            // Old wheel slots are left untouched; they skip refreshed entries when processed
+            entry.expiryTick = expiryTick;
+            expiryWheel[slotIndex(expiryTick)].add(entityId);
+        }
+    }
+
+    /**
+     * Checks whether an entity is currently remembered as a threat.
+     *
+     * @param entity The entity to check
+     * @return true if the entity is in memory
+     */
+    public boolean contains(Entity entity) {
+        return entries.containsKey(entity.getId());
+    }
+
+    /**
+     * Gets remembered threat information for an entity.
+     *
+     * @param entity The entity to look up
+     * @return Threat information, or null if the entity is not remembered
+     */
+    public ThreatInfo get(LivingEntity entity) {
+        Entry entry = entries.get(entity.getId());
+        if (entry == null) {
+            return null;
+        }
+        return toThreatInfo(entry, entity);
+    }
+
+    /**
+     * Finds the highest priority remembered threat within a horizontal radius.
+     *
+     * <p>Candidates come from the chunk grid (expanded by one chunk to tolerate mobs that
+     * moved since they were last recorded) and are checked against their live position.</p>
+     *
+     * @param x Query center X
+     * @param z Query center Z
+     * @param radius Horizontal radius in blocks
+     * @return The highest priority nearby threat, or null if none
+     */
+    public ThreatInfo findHighestPriorityNear(double x, double z, double radius) {
+        double radiusSq = radius * radius;
+        int minChunkX = ((int) Math.floor(x - radius) >> 4) - 1;
+        int maxChunkX = ((int) Math.floor(x + radius) >> 4) + 1;
+        int minChunkZ = ((int) Math.floor(z - radius) >> 4) - 1;
+        int maxChunkZ = ((int) Math.floor(z + radius) >> 4) + 1;
+
+        Entry bestEntry = null;
+        LivingEntity bestEntity = null;
+
+        for (int cx = minChunkX; cx <= maxChunkX; cx++) {
+            for (int cz = minChunkZ; cz <= maxChunkZ; cz++) {
+                IntArrayList cell = grid.get(ChunkPos.toLong(cx, cz));
+                if (cell == null) {
+                    continue;
+                }
+
+                for (int i = 0; i < cell.size(); i++) {
+                    Entry entry = entries.get(cell.getInt(i));
+                    if (entry == null) {
+                        continue;
+                    }
+                    if (bestEntry != null && entry.priority.getValue() <= bestEntry.priority.getValue()) {
+                        continue;
+                    }
+
+                    LivingEntity entity = resolveLiving(entry.entityId);
+                    if (entity == null) {
+                        continue;
+                    }
+
+                    double dx = entity.getX() - x;
+                    double dz = entity.getZ() - z;
+                    if (dx * dx + dz * dz <= radiusSq) {
+                        bestEntry = entry;
+                        bestEntity = entity;
+                    }
+                }
+            }
+        }
+
+        return bestEntry != null ? toThreatInfo(bestEntry, bestEntity) : null;
+    }
+
+    /**
+     * Removes an entity from memory immediately (e.g. on death or unload).
+     *
+     * @param entity The entity to forget
+     */
+    public void forget(Entity entity) {
+        Entry entry = entries.remove(entity.getId());
+        if (entry != null) {
+            removeFromCell(entry.cellKey, entry.entityId);
+        }
+    }
+
+    /**
+     * Expires entries whose memory duration has elapsed.
+     * Only wheel slots that became due since the last call are processed.
+     *
+     * @param currentTick Current server tick
+     */
+    public void expire(int currentTick) {
+        // A slot is due once every tick it covers has passed
+        long dueSlot = ((long) currentTick >> SLOT_SHIFT) - 1;
+        if (nextSlotToExpire < 0 || dueSlot - nextSlotToExpire >= SLOT_COUNT) {
+            // First call or a long gap: every slot is due once
+            nextSlotToExpire = Math.max(0, dueSlot - SLOT_COUNT + 1);
+        }
+
+        while (nextSlotToExpire <= dueSlot) {
+            int slotIndex = (int) (nextSlotToExpire & (SLOT_COUNT - 1));
+            IntArrayList slot = expiryWheel[slotIndex];
+            long slotEndTick = (nextSlotToExpire + 1) << SLOT_SHIFT;
+            int kept = 0;
+
+            for (int i = 0; i < slot.size(); i++) {
+                int entityId = slot.getInt(i);
+                Entry entry = entries.get(entityId);
+                if (entry == null) {
+                    continue;
+                }
+
+                if (entry.expiryTick < slotEndTick) {
+                    entries.remove(entityId);
+                    removeFromCell(entry.cellKey, entityId);
+                } else if (slotIndex(entry.expiryTick) == slotIndex) {
+                    // Belongs to a later revolution of the wheel; keep it queued here
+                    slot.set(kept++, entityId);
+                }
+                // Otherwise the entry was refreshed and is queued in another slot
+            }
+
+            slot.size(kept);
+            nextSlotToExpire++;
+        }
+    }
+
+    /**
+     * Gets the number of remembered threats.
+     *
+     * @return Number of entries in memory
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Clears all remembered threats.
+     */
+    public void clear() {
+        entries.clear();
+        grid.clear();
+        for (IntArrayList slot : expiryWheel) {
+            slot.clear();
+        }
+    }
+
+    /**
+     * Rebuilds a {@link ThreatInfo} from a stored entry and its resolved entity.
+     */
+    private ThreatInfo toThreatInfo(Entry entry, LivingEntity threatEntity) {
+        LivingEntity victim = entry.victimId != NO_ENTITY ? resolveLiving(entry.victimId) : null;
+        ThreatInfo info = new ThreatInfo(threatEntity, victim, entry.priority, entry.type, entry.distanceSquared);
+        info.setLastSeenTick(entry.lastSeenTick);
+        return info;
+    }
+
+    /**
+     * Resolves an entity id to a living entity, or null if it is gone or dead.
+     */
+    private LivingEntity resolveLiving(int entityId) {
+        Entity entity = world.getEntityById(entityId);
+        if (entity instanceof LivingEntity living && living.isAlive()) {
+            return living;
+        }
+        return null;
+    }
+
+    private void addToCell(long cellKey, int entityId) {
+        IntArrayList cell = grid.get(cellKey);
+        if (cell == null) {
+            cell = new IntArrayList();
+            grid.put(cellKey, cell);
+        }
+        cell.add(entityId);
+    }
+
+    private void removeFromCell(long cellKey, int entityId) {
+        IntArrayList cell = grid.get(cellKey);
+        if (cell == null) {
+            return;
+        }
+        cell.rem(entityId);
+        if (cell.isEmpty()) {
+            grid.remove(cellKey);
+        }
+    }
+
+    private static int slotIndex(int tick) {
+        return (tick >> SLOT_SHIFT) & (SLOT_COUNT - 1);
+    }
+
+    /**
+     * Compact per-threat record holding ids and primitives only.
+     */
+    private static class Entry {
+        final int entityId;
+        int victimId = NO_ENTITY;
+        ThreatPriority priority;
+        ThreatType type;
+        double distanceSquared;
+        int lastSeenTick;
+        int expiryTick = Integer.MIN_VALUE;
+        long cellKey;
+
+        Entry(int entityId) {
+            this.entityId = entityId;
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.xeenaa.villagermanager.threat;
+
+/**
+ * Bounded min-heap that keeps the top-K threat candidates by a primitive score key.
+ *
+ * <p>Candidates are identified by an int index into the caller's candidate list, and
+ * scored by a long key where higher is better (see {@link #scoreKey(int, double)}).
+ * Offering a candidate is O(log K) and nothing is allocated per candidate, so a scan
+ * only pays for the K threats it keeps instead of sorting every hostile in range.</p>
+ *
+ * @since 1.0.0
+ */
+public class ThreatSelectionHeap {
+    // Distances are quantized to 1/256 of a squared block for the low half of the key
+    private static final double DISTANCE_SCALE = 256.0;
+
+    private final long[] keys;
+    private final int[] candidates;
+    private int size;
+
+    /**
+     * Creates a heap that keeps at most {@code capacity} candidates.
+     *
+     * @param capacity Maximum number of candidates kept (K)
+     */
+    public ThreatSelectionHeap(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.keys = new long[capacity];
+        this.candidates = new int[capacity];
+        this.size = 0;
+    }
+
+    /**
+     * Builds a score key ordering by priority first, then by closeness.
+     *
+     * @param priorityValue Threat priority value ({@link ThreatPriority#getValue()})
+     * @param distanceSquared Squared distance from the guard to the threat
+     * @return Score key, higher is better
+     */
+    public static long scoreKey(int priorityValue, double distanceSquared) {
+        long quantized = (long) Math.min(distanceSquared * DISTANCE_SCALE, Integer.MAX_VALUE);
+        return ((long) priorityValue << 32) | (Integer.MAX_VALUE - quantized);
+    }
+
+    /**
+     * Checks whether a candidate with this key would be kept.
+     * Lets callers skip expensive checks (e.g. raycasts) for candidates that cannot make the cut.
+     *
+     * @param key Candidate score key
+     * @return true if {@link #offer(long, int)} would keep the candidate
+     */
+    public boolean wouldAccept(long key) {
+        return size < keys.length || key > keys[0];
+    }
+
+    /**
+     * Offers a candidate, evicting the lowest-scored one if the heap is full.
+     *
+     * @param key Candidate score key
+     * @param candidate Candidate index in the caller's list
+     */
+    public void offer(long key, int candidate) {
+        if (size < keys.length) {
+            keys[size] = key;
+            candidates[size] = candidate;
+            siftUp(size++);
+        } else if (key > keys[0]) {
+            keys[0] = key;
+            candidates[0] = candidate;
+            siftDown(0);
+        }
+    }
+
+    /**
+     * Gets the number of candidates currently kept.
+     *
+     * @return Number of kept candidates
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Removes all kept candidates and returns their indices, best first.
+     *
+     * @return Candidate indices ordered by descending score
+     */
+    public int[] drainDescending() {
+        int[] result = new int[size];
+        for (int i = size - 1; i >= 0; i--) {
+            result[i] = candidates[0];
+            size--;
+            if (size > 0) {
+                keys[0] = keys[size];
+                candidates[0] = candidates[size];
+                siftDown(0);
+            }
+        }
+        return result;
+    }
+
+    private void siftUp(int index) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (keys[parent] <= keys[index]) {
+                break;
+            }
+            swap(parent, index);
+            index = parent;
+        }
+    }
+
+    private void siftDown(int index) {
+        while (true) {
+            int left = 2 * index + 1;
+            if (left >= size) {
+                break;
+            }
+            int smallest = left;
+            int right = left + 1;
+            if (right < size && keys[right] < keys[left]) {
+                smallest = right;
+            }
+            if (keys[index] <= keys[smallest]) {
+                break;
+            }
+            swap(index, smallest);
+            index = smallest;
+        }
+    }
+
+    private void swap(int a, int b) {
+        long key = keys[a];
+        keys[a] = keys[b];
+        keys[b] = key;
+
+        int candidate = candidates[a];
+        candidates[a] = candidates[b];
+        candidates[b] = candidate;
+    }
+}
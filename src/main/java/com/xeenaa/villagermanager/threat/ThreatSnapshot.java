@@ -0,0 +1,303 @@
+package com.xeenaa.villagermanager.threat;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+
+import java.util.stream.IntStream;
+
+/**
+ * Immutable struct-of-arrays snapshot of guards, hostiles and villagers for off-thread
+ * threat scoring.
+ *
+ * <p>Captured on the server thread at the end of a tick: guard positions and detection
+ * ranges, hostile positions with the position and attack priority of each hostile's
+ * target and most recent attacker, and villager positions. {@link #score(int)} does all
+ * per-hostile work over these arrays, so it is safe to run on worker threads while the
+ * world keeps ticking:</p>
+ * <ul>
+ *   <li>Victims: the target within the victim range, otherwise the attacker within the
+ *       close range (same rules as {@link ThreatGraph#findVictim})</li>
+ *   <li>"Near villagers": any villager within the close range of an idle hostile</li>
+ *   <li>Candidates: hostiles within each guard's cylindrical range, through a grid of
+ *       16-block columns</li>
+ * </ul>
+ *
+ * <p>Line of sight is not part of the snapshot; raycasts need the live world and are
+ * checked on the server thread for the ranked few when results are applied. The
+ * villager check is distance-only for the same reason, where a synchronous scan also
+ * requires the hostile to see the villager.</p>
+ *
+ * @since 1.0.0
+ */
+public class ThreatSnapshot {
+    /**
+     * Attack priority value for hostiles that are not attacking anyone.
+     */
+    public static final int NO_ATTACK = -1;
+
+    /**
+     * The hostile is not attacking anyone in range.
+     */
+    public static final int VICTIM_NONE = 0;
+
+    /**
+     * The hostile's victim is its current target.
+     */
+    public static final int VICTIM_TARGET = 1;
+
+    /**
+     * The hostile's victim is its most recent attacker.
+     */
+    public static final int VICTIM_ATTACKER = 2;
+
+    private static final int HOSTILE_CELL_SHIFT = 4;  // 16-block columns
+    private static final int VILLAGER_CELL_SHIFT = 3; // 8-block columns
+
+    // Guards
+    private final Positions guards;
+    private final double[] guardRange;
+    private final double[] guardVerticalRange;
+
+    // Hostiles, their targets and attackers (index-aligned with the hostiles)
+    private final Positions hostiles;
+    private final Positions targets;
+    private final int[] targetPriority;
+    private final Positions attackers;
+    private final int[] attackerPriority;
+
+    private final Positions villagers;
+    private final double victimRange;
+    private final double closeRange;
+
+    // Per-hostile evaluation, filled in by score()
+    private final int[] victimKind;
+    private final int[] attackPriority;
+    private final boolean[] nearVillagers;
+
+    /**
+     * Positions of a group of entities, one index per entity.
+     *
+     * @param x X positions
+     * @param y Y positions
+     * @param z Z positions
+     */
+    public record Positions(double[] x, double[] y, double[] z) {
+        /**
+         * Gets the number of entities.
+         *
+         * @return Entity count
+         */
+        public int size() {
+            return x.length;
+        }
+    }
+
+    /**
+     * Creates a snapshot. Arrays are taken as-is and must not be modified afterwards.
+     *
+     * @param guards Guard positions
+     * @param guardRange Guard horizontal detection ranges
+     * @param guardVerticalRange Guard vertical detection ranges
+     * @param hostiles Hostile positions
+     * @param targets Position of each hostile's target (ignored where there is none)
+     * @param targetPriority Priority value of attacking each hostile's target, or {@link #NO_ATTACK}
+     * @param attackers Position of each hostile's most recent attacker (ignored where there is none)
+     * @param attackerPriority Priority value of attacking each hostile's attacker, or {@link #NO_ATTACK}
+     * @param villagers Villager positions
+     * @param victimRange Maximum distance from a hostile to its target
+     * @param closeRange Maximum distance from a hostile to its attacker or a nearby villager
+     */
+    public ThreatSnapshot(Positions guards, double[] guardRange, double[] guardVerticalRange,
+                          Positions hostiles, Positions targets, int[] targetPriority,
+                          Positions attackers, int[] attackerPriority, Positions villagers,
+                          double victimRange, double closeRange) {
+        this.guards = guards;
+        this.guardRange = guardRange;
+        this.guardVerticalRange = guardVerticalRange;
+        this.hostiles = hostiles;
+        this.targets = targets;
+        this.targetPriority = targetPriority;
+        this.attackers = attackers;
+        this.attackerPriority = attackerPriority;
+        this.villagers = villagers;
+        this.victimRange = victimRange;
+        this.closeRange = closeRange;
+        this.victimKind = new int[hostiles.size()];
+        this.attackPriority = new int[hostiles.size()];
+        this.nearVillagers = new boolean[hostiles.size()];
+    }
+
+    /**
+     * Gets the number of guards in the snapshot.
+     *
+     * @return Guard count
+     */
+    public int getGuardCount() {
+        return guards.size();
+    }
+
+    /**
+     * Gets who a hostile was found to be attacking. Valid after {@link #score(int)}.
+     *
+     * @param hostile Hostile index
+     * @return {@link #VICTIM_NONE}, {@link #VICTIM_TARGET} or {@link #VICTIM_ATTACKER}
+     */
+    public int getVictimKind(int hostile) {
+        return victimKind[hostile];
+    }
+
+    /**
+     * Checks whether an idle hostile was found near villagers. Valid after {@link #score(int)}.
+     *
+     * @param hostile Hostile index
+     * @return true if a villager is within the close range
+     */
+    public boolean isNearVillagers(int hostile) {
+        return nearVillagers[hostile];
+    }
+
+    /**
+     * Evaluates every hostile, then ranks the candidate hostiles of every guard, in
+     * parallel across hostiles and guards.
+     *
+     * @param maxThreats Maximum number of threats kept per guard
+     * @return For each guard, hostile indices ordered best first
+     */
+    public int[][] score(int maxThreats) {
+        Long2ObjectMap<IntArrayList> villagerGrid = bucket(villagers, VILLAGER_CELL_SHIFT);
+        IntStream.range(0, hostiles.size()).parallel()
+            .forEach(hostile -> evaluateHostile(hostile, villagerGrid));
+
+        Long2ObjectMap<IntArrayList> hostileGrid = bucket(hostiles, HOSTILE_CELL_SHIFT);
+        double closeRangeSquared = closeRange * closeRange;
+        int[][] results = new int[getGuardCount()][];
+        IntStream.range(0, getGuardCount()).parallel()
+            .forEach(guard -> results[guard] = scoreGuard(guard, maxThreats, closeRangeSquared, hostileGrid));
+        return results;
+    }
+
+    /**
+     * Finds a hostile's victim, or whether it is near villagers when it has none.
+     */
+    private void evaluateHostile(int hostile, Long2ObjectMap<IntArrayList> villagerGrid) {
+        if (targetPriority[hostile] != NO_ATTACK
+                && squaredDistance(hostiles, hostile, targets, hostile) <= victimRange * victimRange) {
+            victimKind[hostile] = VICTIM_TARGET;
+            attackPriority[hostile] = targetPriority[hostile];
+            return;
+        }
+
+        if (attackerPriority[hostile] != NO_ATTACK
+                && squaredDistance(hostiles, hostile, attackers, hostile) <= closeRange * closeRange) {
+            victimKind[hostile] = VICTIM_ATTACKER;
+            attackPriority[hostile] = attackerPriority[hostile];
+            return;
+        }
+
+        victimKind[hostile] = VICTIM_NONE;
+        attackPriority[hostile] = NO_ATTACK;
+        nearVillagers[hostile] = anyWithin(villagerGrid, VILLAGER_CELL_SHIFT, villagers,
+            hostiles.x()[hostile], hostiles.y()[hostile], hostiles.z()[hostile], closeRange);
+    }
+
+    /**
+     * Ranks the candidate hostiles of one guard.
+     */
+    private int[] scoreGuard(int guard, int maxThreats, double closeRangeSquared,
+                             Long2ObjectMap<IntArrayList> hostileGrid) {
+        ThreatSelectionHeap heap = new ThreatSelectionHeap(maxThreats);
+        double x = guards.x()[guard];
+        double y = guards.y()[guard];
+        double z = guards.z()[guard];
+        double range = guardRange[guard];
+        double rangeSq = range * range;
+
+        int minCellX = (int) Math.floor(x - range) >> HOSTILE_CELL_SHIFT;
+        int maxCellX = (int) Math.floor(x + range) >> HOSTILE_CELL_SHIFT;
+        int minCellZ = (int) Math.floor(z - range) >> HOSTILE_CELL_SHIFT;
+        int maxCellZ = (int) Math.floor(z + range) >> HOSTILE_CELL_SHIFT;
+        for (int cellX = minCellX; cellX <= maxCellX; cellX++) {
+            for (int cellZ = minCellZ; cellZ <= maxCellZ; cellZ++) {
+                IntArrayList cell = hostileGrid.get(cellKey(cellX, cellZ));
+                if (cell == null) {
+                    continue;
+                }
+
+                for (int i = 0; i < cell.size(); i++) {
+                    int hostile = cell.getInt(i);
+                    if (Math.abs(hostiles.y()[hostile] - y) > guardVerticalRange[guard]) {
+                        continue;
+                    }
+
+                    double dx = hostiles.x()[hostile] - x;
+                    double dy = hostiles.y()[hostile] - y;
+                    double dz = hostiles.z()[hostile] - z;
+                    double distanceSq = dx * dx + dy * dy + dz * dz;
+                    if (distanceSq > rangeSq) {
+                        continue;
+                    }
+
+                    int priority = attackPriority[hostile] != NO_ATTACK
+                        ? attackPriority[hostile]
+                        : ThreatPriority.getProximityPriority(distanceSq, closeRangeSquared, nearVillagers[hostile]).getValue();
+                    heap.offer(ThreatSelectionHeap.scoreKey(priority, distanceSq), hostile);
+                }
+            }
+        }
+
+        return heap.drainDescending();
+    }
+
+    private static Long2ObjectMap<IntArrayList> bucket(Positions positions, int shift) {
+        Long2ObjectMap<IntArrayList> grid = new Long2ObjectOpenHashMap<>();
+        for (int i = 0; i < positions.size(); i++) {
+            long key = cellKey((int) Math.floor(positions.x()[i]) >> shift, (int) Math.floor(positions.z()[i]) >> shift);
+            IntArrayList cell = grid.get(key);
+            if (cell == null) {
+                cell = new IntArrayList(4);
+                grid.put(key, cell);
+            }
+            cell.add(i);
+        }
+        return grid;
+    }
+
+    private static boolean anyWithin(Long2ObjectMap<IntArrayList> grid, int shift, Positions positions,
+                                     double x, double y, double z, double radius) {
+        double radiusSq = radius * radius;
+        int minCellX = (int) Math.floor(x - radius) >> shift;
+        int maxCellX = (int) Math.floor(x + radius) >> shift;
+        int minCellZ = (int) Math.floor(z - radius) >> shift;
+        int maxCellZ = (int) Math.floor(z + radius) >> shift;
+        for (int cellX = minCellX; cellX <= maxCellX; cellX++) {
+            for (int cellZ = minCellZ; cellZ <= maxCellZ; cellZ++) {
+                IntArrayList cell = grid.get(cellKey(cellX, cellZ));
+                if (cell == null) {
+                    continue;
+                }
+                for (int i = 0; i < cell.size(); i++) {
+                    int index = cell.getInt(i);
+                    double dx = positions.x()[index] - x;
+                    double dy = positions.y()[index] - y;
+                    double dz = positions.z()[index] - z;
+                    if (dx * dx + dy * dy + dz * dz <= radiusSq) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    private static double squaredDistance(Positions a, int i, Positions b, int j) {
+        double dx = a.x()[i] - b.x()[j];
+        double dy = a.y()[i] - b.y()[j];
+        double dz = a.z()[i] - b.z()[j];
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    private static long cellKey(int cellX, int cellZ) {
+        return ((long) cellX << 32) | (cellZ & 0xFFFFFFFFL);
+    }
+}
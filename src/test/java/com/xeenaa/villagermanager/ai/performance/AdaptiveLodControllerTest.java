@@ -0,0 +1,47 @@
+package com.xeenaa.villagermanager.ai.performance;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the MSPT feedback step of the adaptive LOD controller.
+ * Validates scaling direction, the dead band and clamping.
+ */
+@DisplayName("Adaptive LOD Controller Tests")
+public class AdaptiveLodControllerTest {
+    private static final double TARGET_MSPT = 40.0;
+
+    @Test
+    @DisplayName("Scale grows above target and relaxes well below it")
+    public void testScaleDirection() {
+        double overloaded = AdaptiveLodController.adjustScale(1.0, 55.0, TARGET_MSPT);
+        double idle = AdaptiveLodController.adjustScale(1.0, 10.0, TARGET_MSPT);
+
+        assertTrue(overloaded > 1.0, "Intervals lengthen when over target");
+        assertTrue(idle < 1.0, "Intervals shorten when well under target");
+    }
+
+    @Test
+    @DisplayName("Scale holds steady inside the dead band")
+    public void testDeadBand() {
+        assertEquals(2.0, AdaptiveLodController.adjustScale(2.0, 35.0, TARGET_MSPT),
+            "Between 80% and 100% of target the scale does not move");
+    }
+
+    @Test
+    @DisplayName("Scale is clamped to its bounds")
+    public void testClamping() {
+        double scale = 1.0;
+        for (int i = 0; i < 100; i++) {
+            scale = AdaptiveLodController.adjustScale(scale, 100.0, TARGET_MSPT);
+        }
+        assertEquals(AdaptiveLodController.MAX_SCALE, scale);
+
+        for (int i = 0; i < 100; i++) {
+            scale = AdaptiveLodController.adjustScale(scale, 1.0, TARGET_MSPT);
+        }
+        assertEquals(AdaptiveLodController.MIN_SCALE, scale);
+    }
+}
@@ -0,0 +1,28 @@
+package com.xeenaa.villagermanager.ai.performance;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the backoff schedule of the path failure cache.
+ */
+@DisplayName("Path Failure Cache Tests")
+public class PathFailureCacheTest {
+
+    @Test
+    @DisplayName("Backoff doubles with each consecutive failure")
+    public void testBackoffDoubles() {
+        assertEquals(PathFailureCache.BASE_BACKOFF_TICKS, PathFailureCache.backoffTicks(1));
+        assertEquals(PathFailureCache.BASE_BACKOFF_TICKS * 2, PathFailureCache.backoffTicks(2));
+        assertEquals(PathFailureCache.BASE_BACKOFF_TICKS * 4, PathFailureCache.backoffTicks(3));
+    }
+
+    @Test
+    @DisplayName("Backoff is capped")
+    public void testBackoffCap() {
+        assertEquals(PathFailureCache.MAX_BACKOFF_TICKS, PathFailureCache.backoffTicks(6));
+        assertEquals(PathFailureCache.MAX_BACKOFF_TICKS, PathFailureCache.backoffTicks(50));
+    }
+}
@@ -0,0 +1,60 @@
+package com.xeenaa.villagermanager.threat;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for bounded top-K threat selection.
+ * Validates score key ordering and that only the best K candidates are kept.
+ */
+@DisplayName("Threat Selection Heap Tests")
+public class ThreatSelectionHeapTest {
+
+    @Test
+    @DisplayName("Higher priority outranks closer distance")
+    public void testPriorityBeforeDistance() {
+        long farAttack = ThreatSelectionHeap.scoreKey(ThreatPriority.PLAYER_UNDER_ATTACK.getValue(), 400.0);
+        long closeProximity = ThreatSelectionHeap.scoreKey(ThreatPriority.PROXIMITY_THREAT_HIGH.getValue(), 1.0);
+        assertTrue(farAttack > closeProximity,
+            "An attack on a player should outrank a close proximity threat");
+    }
+
+    @Test
+    @DisplayName("Closer threats win ties on priority")
+    public void testDistanceBreaksTies() {
+        long near = ThreatSelectionHeap.scoreKey(ThreatPriority.PROXIMITY_THREAT_LOW.getValue(), 25.0);
+        long far = ThreatSelectionHeap.scoreKey(ThreatPriority.PROXIMITY_THREAT_LOW.getValue(), 100.0);
+        assertTrue(near > far, "Closer threat should score higher at equal priority");
+    }
+
+    @Test
+    @DisplayName("Keeps only the top K candidates, best first")
+    public void testKeepsTopK() {
+        ThreatSelectionHeap heap = new ThreatSelectionHeap(3);
+        int[] priorities = {2, 7, 3, 2, 6, 4};
+        for (int i = 0; i < priorities.length; i++) {
+            heap.offer(ThreatSelectionHeap.scoreKey(priorities[i], 10.0), i);
+        }
+
+        assertEquals(3, heap.size());
+        assertArrayEquals(new int[] {1, 4, 5}, heap.drainDescending(),
+            "Should keep priorities 7, 6 and 4 in descending order");
+        assertEquals(0, heap.size());
+    }
+
+    @Test
+    @DisplayName("Rejects candidates that cannot make the cut once full")
+    public void testWouldAccept() {
+        ThreatSelectionHeap heap = new ThreatSelectionHeap(2);
+        long low = ThreatSelectionHeap.scoreKey(2, 10.0);
+        long high = ThreatSelectionHeap.scoreKey(5, 10.0);
+
+        assertTrue(heap.wouldAccept(low), "Empty heap accepts anything");
+        heap.offer(high, 0);
+        heap.offer(high, 1);
+        assertFalse(heap.wouldAccept(low), "Full heap rejects lower scores");
+        assertTrue(heap.wouldAccept(ThreatSelectionHeap.scoreKey(6, 10.0)), "Full heap accepts higher scores");
+    }
+}
@@ -0,0 +1,94 @@
+package com.xeenaa.villagermanager.threat;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for off-thread threat scoring over struct-of-arrays snapshots.
+ * Validates victim and villager evaluation, range filtering and priority ordering per guard.
+ */
+@DisplayName("Threat Snapshot Scoring Tests")
+public class ThreatSnapshotTest {
+    private static final double VICTIM_RANGE = 16.0;
+    private static final double CLOSE_RANGE = 8.0;
+
+    @Test
+    @DisplayName("Attacks outrank proximity threats and out-of-range hostiles are dropped")
+    public void testScoresPerGuard() {
+        // One guard at the origin with a 16 block range
+        // Hostile 0: 5 blocks away, idle (close proximity)
+        // Hostile 1: 12 blocks away, targeting a villager 3 blocks from it
+        // Hostile 2: 20 blocks away, out of range
+        // Hostile 3: 10 blocks horizontally but 15 blocks below, outside the vertical clamp
+        ThreatSnapshot.Positions villagers = positions(new double[] {13}, new double[] {64}, new double[] {3});
+        ThreatSnapshot snapshot = new ThreatSnapshot(
+            positions(new double[] {0}, new double[] {64}, new double[] {0}),
+            new double[] {16}, new double[] {12},
+            positions(new double[] {5, 12, 20, 10}, new double[] {64, 64, 64, 49}, new double[] {0, 0, 0, 0}),
+            positions(new double[] {0, 13, 0, 0}, new double[] {0, 64, 0, 0}, new double[] {0, 3, 0, 0}),
+            new int[] {ThreatSnapshot.NO_ATTACK, ThreatPriority.VILLAGER_UNDER_ATTACK.getValue(),
+                ThreatSnapshot.NO_ATTACK, ThreatSnapshot.NO_ATTACK},
+            positions(new double[4], new double[4], new double[4]),
+            new int[] {ThreatSnapshot.NO_ATTACK, ThreatSnapshot.NO_ATTACK,
+                ThreatSnapshot.NO_ATTACK, ThreatSnapshot.NO_ATTACK},
+            villagers, VICTIM_RANGE, CLOSE_RANGE);
+
+        int[][] ranked = snapshot.score(10);
+
+        assertEquals(1, ranked.length);
+        assertArrayEquals(new int[] {1, 0}, ranked[0],
+            "Villager attack first, then the close proximity threat");
+        assertEquals(ThreatSnapshot.VICTIM_TARGET, snapshot.getVictimKind(1));
+        assertEquals(ThreatSnapshot.VICTIM_NONE, snapshot.getVictimKind(0));
+    }
+
+    @Test
+    @DisplayName("Keeps at most the requested number of threats")
+    public void testMaxThreats() {
+        // Only hostile 1 has a villager within the close range
+        ThreatSnapshot snapshot = new ThreatSnapshot(
+            positions(new double[] {0}, new double[] {0}, new double[] {0}),
+            new double[] {16}, new double[] {12},
+            positions(new double[] {3, 10, 14}, new double[] {0, 0, 0}, new double[] {0, 0, 0}),
+            positions(new double[3], new double[3], new double[3]),
+            new int[] {ThreatSnapshot.NO_ATTACK, ThreatSnapshot.NO_ATTACK, ThreatSnapshot.NO_ATTACK},
+            positions(new double[3], new double[3], new double[3]),
+            new int[] {ThreatSnapshot.NO_ATTACK, ThreatSnapshot.NO_ATTACK, ThreatSnapshot.NO_ATTACK},
+            positions(new double[] {9}, new double[] {0}, new double[] {7}),
+            VICTIM_RANGE, CLOSE_RANGE);
+
+        int[][] ranked = snapshot.score(2);
+
+        assertArrayEquals(new int[] {0, 1}, ranked[0],
+            "Close threat, then the one near villagers");
+        assertTrue(snapshot.isNearVillagers(1));
+        assertFalse(snapshot.isNearVillagers(2));
+    }
+
+    @Test
+    @DisplayName("Ignores attackers outside the close range")
+    public void testAttackerRange() {
+        // Hostile 0 was hit by a villager 5 blocks away, hostile 1 by one 12 blocks away
+        ThreatSnapshot snapshot = new ThreatSnapshot(
+            positions(new double[] {0}, new double[] {0}, new double[] {0}),
+            new double[] {16}, new double[] {12},
+            positions(new double[] {10, 0}, new double[] {0, 0}, new double[] {0, 10}),
+            positions(new double[2], new double[2], new double[2]),
+            new int[] {ThreatSnapshot.NO_ATTACK, ThreatSnapshot.NO_ATTACK},
+            positions(new double[] {15, 12}, new double[] {0, 0}, new double[] {0, 10}),
+            new int[] {ThreatPriority.VILLAGER_UNDER_ATTACK.getValue(), ThreatPriority.VILLAGER_UNDER_ATTACK.getValue()},
+            positions(new double[0], new double[0], new double[0]),
+            VICTIM_RANGE, CLOSE_RANGE);
+
+        snapshot.score(10);
+
+        assertEquals(ThreatSnapshot.VICTIM_ATTACKER, snapshot.getVictimKind(0));
+        assertEquals(ThreatSnapshot.VICTIM_NONE, snapshot.getVictimKind(1));
+    }
+
+    private static ThreatSnapshot.Positions positions(double[] x, double[] y, double[] z) {
+        return new ThreatSnapshot.Positions(x, y, z);
+    }
+}